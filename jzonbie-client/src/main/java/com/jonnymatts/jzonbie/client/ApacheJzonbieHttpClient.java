@@ -108,6 +108,26 @@ public class ApacheJzonbieHttpClient implements JzonbieClient {
         this.deserializer = deserializer;
     }
 
+    /**
+     * Returns a client for one tenant of the Jzonbie, sharing this client's
+     * HTTP client and deserializer.
+     * <p>
+     * <pre>
+     * {@code
+     * final JzonbieClient tenant = new ApacheJzonbieHttpClient("http://jzonbie").forTenant("tenant", "team-a");
+     *
+     * tenant.prime(get("/"), ok());
+     * }
+     * </pre>
+     *
+     * @param tenantHeaderName name of the tenant header of the Jzonbie
+     * @param tenant tenant to prime, verify and reset
+     * @return client for the tenant
+     */
+    public ApacheJzonbieHttpClient forTenant(String tenantHeaderName, String tenant) {
+        return new ApacheJzonbieHttpClient(httpClient, apacheJzonbieRequestFactory.forTenant(tenantHeaderName, tenant), deserializer);
+    }
+
     @Override
     public void prime(AppRequest request, AppResponse response) {
         final HttpUriRequest primeZombieRequest = apacheJzonbieRequestFactory.createPrimeZombieRequest(request, response);
@@ -118,6 +138,16 @@ public class ApacheJzonbieHttpClient implements JzonbieClient {
         );
     }
 
+    @Override
+    public void primeAll(List<ZombiePriming> primings) {
+        final HttpUriRequest primeZombieRequest = apacheJzonbieRequestFactory.createPrimeZombieBatchRequest(primings);
+        execute(
+                primeZombieRequest,
+                this::getHttpResponseBody,
+                format("Failed to prime %d primings.", primings.size())
+        );
+    }
+
     @Override
     public void prime(File file) {
         final HttpUriRequest primeZombieRequest = apacheJzonbieRequestFactory.createPrimeZombieWithFileRequest(file);
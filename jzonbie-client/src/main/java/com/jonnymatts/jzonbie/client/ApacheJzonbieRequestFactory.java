@@ -12,6 +12,7 @@ import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.FileBody;
 
 import java.io.File;
+import java.util.List;
 
 public class ApacheJzonbieRequestFactory {
 
@@ -20,6 +21,8 @@ public class ApacheJzonbieRequestFactory {
     private final String zombieBaseUrl;
     private final String zombieHeaderName;
     private final JzonbieObjectMapper objectMapper;
+    private final String tenantHeaderName;
+    private final String tenant;
 
     public ApacheJzonbieRequestFactory(String zombieBaseUrl) {
         this(zombieBaseUrl, DEFAULT_ZOMBIE_HEADER_NAME);
@@ -27,9 +30,7 @@ public class ApacheJzonbieRequestFactory {
 
     public ApacheJzonbieRequestFactory(String zombieBaseUrl,
                                        String zombieHeaderName) {
-        this.zombieBaseUrl = zombieBaseUrl;
-        this.zombieHeaderName = zombieHeaderName;
-        this.objectMapper = new JzonbieObjectMapper();
+        this(zombieBaseUrl, zombieHeaderName, new JzonbieObjectMapper());
     }
 
     public ApacheJzonbieRequestFactory(String zombieBaseUrl,
@@ -40,15 +41,41 @@ public class ApacheJzonbieRequestFactory {
     public ApacheJzonbieRequestFactory(String zombieBaseUrl,
                                        String zombieHeaderName,
                                        JzonbieObjectMapper objectMapper) {
+        this(zombieBaseUrl, zombieHeaderName, objectMapper, null, null);
+    }
+
+    private ApacheJzonbieRequestFactory(String zombieBaseUrl,
+                                        String zombieHeaderName,
+                                        JzonbieObjectMapper objectMapper,
+                                        String tenantHeaderName,
+                                        String tenant) {
         this.zombieBaseUrl = zombieBaseUrl;
         this.zombieHeaderName = zombieHeaderName;
         this.objectMapper = objectMapper;
+        this.tenantHeaderName = tenantHeaderName;
+        this.tenant = tenant;
+    }
+
+    /**
+     * Returns a request factory that creates the same requests as this one,
+     * with a tenant header selecting the given tenant.
+     *
+     * @param tenantHeaderName name of the tenant header of the Jzonbie
+     * @param tenant tenant to select
+     * @return request factory for the tenant
+     */
+    public ApacheJzonbieRequestFactory forTenant(String tenantHeaderName, String tenant) {
+        return new ApacheJzonbieRequestFactory(zombieBaseUrl, zombieHeaderName, objectMapper, tenantHeaderName, tenant);
     }
 
     public HttpUriRequest createPrimeZombieRequest(AppRequest appRequest, AppResponse appResponse) {
         return createPostRequest(new ZombiePriming(appRequest, appResponse), "priming");
     }
 
+    public HttpUriRequest createPrimeZombieBatchRequest(List<ZombiePriming> primings) {
+        return createPostRequest(primings, "priming-batch");
+    }
+
     public HttpUriRequest createPrimeZombieForDefaultRequest(AppRequest appRequest, AppResponse appResponse) {
         return createPostRequest(new ZombiePriming(appRequest, appResponse), "priming-default");
     }
@@ -57,8 +84,7 @@ public class ApacheJzonbieRequestFactory {
         final HttpEntity entity = MultipartEntityBuilder.create()
                 .addPart("priming", new FileBody(file))
                 .build();
-        return RequestBuilder.post(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "priming-file")
+        return zombieRequest(RequestBuilder.post(), "priming-file")
                 .setEntity(entity)
                 .build();
     }
@@ -68,45 +94,40 @@ public class ApacheJzonbieRequestFactory {
     }
 
     public HttpUriRequest createGetCurrentPrimingRequest() {
-        return RequestBuilder.get(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "current")
-                .build();
+        return zombieRequest(RequestBuilder.get(), "current").build();
     }
 
     public HttpUriRequest createGetHistoryRequest() {
-        return RequestBuilder.get(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "history")
-                .build();
+        return zombieRequest(RequestBuilder.get(), "history").build();
     }
 
     public HttpUriRequest createGetFailedRequestsRequest() {
-        return RequestBuilder.get(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "failed")
-                .build();
+        return zombieRequest(RequestBuilder.get(), "failed").build();
     }
 
     public HttpUriRequest createResetRequest() {
-        return RequestBuilder.delete(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "reset")
-                .build();
+        return zombieRequest(RequestBuilder.delete(), "reset").build();
     }
 
     public HttpUriRequest createTruststoreRequest() {
-        return RequestBuilder.get(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "truststore")
-                .build();
+        return zombieRequest(RequestBuilder.get(), "truststore").build();
     }
 
     public HttpUriRequest createReadyRequest() {
-        return RequestBuilder.get(zombieBaseUrl)
-                .addHeader(zombieHeaderName, "up")
-                .build();
+        return zombieRequest(RequestBuilder.get(), "up").build();
+    }
+
+    private RequestBuilder zombieRequest(RequestBuilder requestBuilder, String zombieHeader) {
+        requestBuilder.setUri(zombieBaseUrl).addHeader(zombieHeaderName, zombieHeader);
+        if(tenant != null) {
+            requestBuilder.addHeader(tenantHeaderName, tenant);
+        }
+        return requestBuilder;
     }
 
     private HttpUriRequest createPostRequest(Object requestBody, String zombieHeader) {
         try {
-            return RequestBuilder.post(zombieBaseUrl)
-                    .addHeader(zombieHeaderName, zombieHeader)
+            return zombieRequest(RequestBuilder.post(), zombieHeader)
                     .setEntity(new StringEntity(objectMapper.writeValueAsString(requestBody)))
                     .build();
         } catch (Exception e) {
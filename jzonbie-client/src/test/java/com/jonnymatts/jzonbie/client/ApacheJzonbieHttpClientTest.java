@@ -5,6 +5,7 @@ import com.jonnymatts.jzonbie.JzonbieClient;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.junit.JzonbieExtension;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
+import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
@@ -81,6 +82,13 @@ class ApacheJzonbieHttpClientTest {
         assertThat(jzonbie.getCurrentPriming()).containsExactly(primedMapping);
     }
 
+    @Test
+    void primeAllAddsAllPriming(Jzonbie jzonbie) {
+        underTest.primeAll(asList(new ZombiePriming(REQUEST, RESPONSE), new ZombiePriming(REQUEST, RESPONSE)));
+
+        assertThat(jzonbie.getCurrentPriming()).containsExactly(createPrimedMapping(RESPONSE, RESPONSE));
+    }
+
     @Test
     void primeZombieWithFileAddsPriming(Jzonbie jzonbie) {
         underTest.prime(FILE);
@@ -137,6 +145,38 @@ class ApacheJzonbieHttpClientTest {
         assertThat(underTest.getHistory()).isEmpty();
     }
 
+    @Test
+    void forTenantPrimesVerifiesAndResetsOnlyThatTenant() {
+        final Jzonbie jzonbie = new Jzonbie(options().withTenantHeaderName("tenant"));
+        final String zombieBaseUrl = "http://localhost:" + jzonbie.getHttpPort();
+        final ApacheJzonbieHttpClient client = new ApacheJzonbieHttpClient(zombieBaseUrl);
+        final ApacheJzonbieHttpClient tenantA = client.forTenant("tenant", "a");
+        final ApacheJzonbieHttpClient tenantB = client.forTenant("tenant", "b");
+        final TestingClient testingClient = new TestingClient(zombieBaseUrl);
+
+        tenantA.prime(REQUEST, DEFAULT_RESPONSE);
+        tenantB.prime(get("/b"), DEFAULT_RESPONSE);
+        testingClient.execute(get("/").withHeader("tenant", "a"));
+        testingClient.execute(get("/").withHeader("tenant", "b"));
+
+        assertThat(tenantA.getCurrentPriming()).hasSize(1);
+        assertThat(tenantA.getHistory()).hasSize(1);
+        tenantA.verify(get("/"), equalTo(1));
+        assertThat(tenantB.getCurrentPriming()).hasSize(1);
+        assertThat(tenantB.getFailedRequests()).hasSize(1);
+        assertThat(client.getCurrentPriming()).isEmpty();
+        assertThat(client.getHistory()).isEmpty();
+        assertThat(client.getFailedRequests()).isEmpty();
+
+        tenantA.reset();
+
+        assertThat(tenantA.getCurrentPriming()).isEmpty();
+        assertThat(tenantA.getHistory()).isEmpty();
+        assertThat(tenantB.getFailedRequests()).hasSize(1);
+
+        jzonbie.stop();
+    }
+
     @Test
     void verifyDoesNotThrowExceptionWhenVerificationIsTrue() {
         underTest.prime(REQUEST, RESPONSE);
@@ -219,6 +259,7 @@ class ApacheJzonbieHttpClientTest {
         return Stream.of(
             new ExceptionTestData("priming", "prime", client -> client.prime(REQUEST, RESPONSE)),
             new ExceptionTestData("default priming", "prime", client -> client.prime(REQUEST, DEFAULT_RESPONSE)),
+            new ExceptionTestData("batch priming", "prime", client -> client.primeAll(asList(new ZombiePriming(REQUEST, RESPONSE)))),
             new ExceptionTestData("current priming", "current", JzonbieClient::getCurrentPriming),
             new ExceptionTestData("history", "history", JzonbieClient::getHistory),
             new ExceptionTestData("failed requests", "failed", JzonbieClient::getFailedRequests),
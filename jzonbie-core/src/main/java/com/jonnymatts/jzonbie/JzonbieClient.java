@@ -2,6 +2,7 @@ package com.jonnymatts.jzonbie;
 
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
+import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
@@ -51,6 +52,18 @@ public interface JzonbieClient {
      */
     void prime(File file);
 
+    /**
+     * Prime this Jzonbie with all of the given request/response primings at once.
+     * <p>
+     * Each priming behaves as if primed with {@link #prime(AppRequest, AppResponse)},
+     * but the primings are added together, which is much faster for large numbers of primings.
+     *
+     * @param primings the primings to add
+     */
+    default void primeAll(List<ZombiePriming> primings) {
+        primings.forEach(priming -> prime(priming.getRequest(), priming.getResponse()));
+    }
+
     /**
      * Returns all priming currently configured for this Jzonbie.
      *
@@ -1,5 +1,6 @@
 package com.jonnymatts.jzonbie;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +16,6 @@ public interface Request {
 
     Map<String, List<String>> getQueryParams();
 
-    String getPrimingFileContent();
+    InputStream getPrimingFile();
 
 }
@@ -1,6 +1,7 @@
 package com.jonnymatts.jzonbie.body;
 
 import com.jonnymatts.jzonbie.Body;
+import com.jonnymatts.jzonbie.util.CompiledPattern;
 
 /**
  * Request/response body defining a literal response. This will not be recognized as
@@ -22,6 +23,7 @@ import com.jonnymatts.jzonbie.Body;
 public class LiteralBodyContent extends BodyContent<String> {
 
     private final String content;
+    private CompiledPattern pattern;
 
     private LiteralBodyContent(Object content) {
         this.content = String.valueOf(content);
@@ -32,9 +34,24 @@ public class LiteralBodyContent extends BodyContent<String> {
         return content;
     }
 
+    /**
+     * Matches another body of the same type whose content, read as a regex, matches this
+     * content. The other body keeps its compiled pattern, so it is compiled once however
+     * many bodies it is matched against.
+     *
+     * @param other body to match
+     * @return true if this content matches the other body's content
+     */
     @Override
     public boolean matches(Body<?> other) {
-        return other instanceof LiteralBodyContent && content.matches(((LiteralBodyContent)other).getContent());
+        return other instanceof LiteralBodyContent && ((LiteralBodyContent)other).getPattern().matches(content);
+    }
+
+    private CompiledPattern getPattern() {
+        if(pattern == null) {
+            pattern = CompiledPattern.regex(content);
+        }
+        return pattern;
     }
 
     @Override
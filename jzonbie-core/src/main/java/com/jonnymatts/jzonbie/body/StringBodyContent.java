@@ -1,6 +1,7 @@
 package com.jonnymatts.jzonbie.body;
 
 import com.jonnymatts.jzonbie.Body;
+import com.jonnymatts.jzonbie.util.CompiledPattern;
 
 /**
  * Request/response body containing a {@link String}. This will be recognized as
@@ -20,6 +21,7 @@ import com.jonnymatts.jzonbie.Body;
 public class StringBodyContent extends BodyContent<String> {
 
     private String content;
+    private CompiledPattern pattern;
 
     private StringBodyContent(String content) {
         this.content = content;
@@ -30,9 +32,24 @@ public class StringBodyContent extends BodyContent<String> {
         return content;
     }
 
+    /**
+     * Matches another body of the same type whose content, read as a regex, matches this
+     * content. The other body keeps its compiled pattern, so it is compiled once however
+     * many bodies it is matched against.
+     *
+     * @param other body to match
+     * @return true if this content matches the other body's content
+     */
     @Override
     public boolean matches(Body<?> other) {
-        return other instanceof StringBodyContent && content.matches(((StringBodyContent)other).getContent());
+        return other instanceof StringBodyContent && ((StringBodyContent)other).getPattern().matches(content);
+    }
+
+    private CompiledPattern getPattern() {
+        if(pattern == null) {
+            pattern = CompiledPattern.regex(content);
+        }
+        return pattern;
     }
 
     @Override
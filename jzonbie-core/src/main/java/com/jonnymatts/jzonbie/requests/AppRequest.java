@@ -1,10 +1,13 @@
 package com.jonnymatts.jzonbie.requests;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Sets;
 import com.jonnymatts.jzonbie.body.*;
+import com.jonnymatts.jzonbie.util.CompiledPattern;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static com.jonnymatts.jzonbie.body.ArrayBodyContent.arrayBody;
 import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
@@ -41,7 +44,9 @@ public class AppRequest {
     private Map<String, String> headers;
     private String method;
     private BodyContent<?> body;
+    private Supplier<BodyContent<?>> lazyBody;
     private Map<String, List<String>> queryParams;
+    private CompiledPattern pathPattern;
 
     public AppRequest() {
         this.headers = new HashMap<>();
@@ -85,6 +90,7 @@ public class AppRequest {
 
     public void setPath(String path) {
         this.path = path;
+        this.pathPattern = null;
     }
 
     public Map<String, String> getHeaders() {
@@ -104,11 +110,21 @@ public class AppRequest {
     }
 
     public BodyContent<?> getBody() {
-        return body;
+        return lazyBody != null ? lazyBody.get() : body;
     }
 
     public void setBody(BodyContent<?> body) {
         this.body = body;
+        this.lazyBody = null;
+    }
+
+    /**
+     * Returns whether this request has a body, without creating a lazily supplied body.
+     *
+     * @return true if this request has a body
+     */
+    public boolean hasBody() {
+        return lazyBody != null || body != null;
     }
 
     private void setBasicAuth(Map<String, String> basicAuth) {
@@ -157,6 +173,20 @@ public class AppRequest {
         return this;
     }
 
+    /**
+     * Configures this request with a body that is created when it is first accessed.
+     * <p>
+     * The supplier is called at most once and must not return null.
+     *
+     * @param body body content supplier
+     * @return this request with a lazily created body
+     */
+    public AppRequest withLazyBody(Supplier<BodyContent<?>> body) {
+        this.body = null;
+        this.lazyBody = Suppliers.memoize(body::get);
+        return this;
+    }
+
     /**
      * Configures this request with an {@link ObjectBodyContent} body.
      *
@@ -339,7 +369,7 @@ public class AppRequest {
         if(path != null ? !path.equals(request.path) : request.path != null) return false;
         if(headers != null ? !headers.equals(request.headers) : request.headers != null) return false;
         if(method != null ? !method.equals(request.method) : request.method != null) return false;
-        if(body != null ? !body.equals(request.body) : request.body != null) return false;
+        if(!Objects.equals(getBody(), request.getBody())) return false;
         return queryParams != null ? queryParams.equals(request.queryParams) : request.queryParams == null;
 
     }
@@ -349,7 +379,24 @@ public class AppRequest {
         int result = path != null ? path.hashCode() : 0;
         result = 31 * result + (headers != null ? headers.hashCode() : 0);
         result = 31 * result + (method != null ? method.hashCode() : 0);
-        result = 31 * result + (body != null ? body.hashCode() : 0);
+        result = 31 * result + Objects.hashCode(getBody());
+        result = 31 * result + (queryParams != null ? queryParams.hashCode() : 0);
+        return result;
+    }
+
+    /**
+     * Returns a hash code of the path, method, body content and query params of this request,
+     * ignoring headers.
+     * <p>
+     * The hash code is not cached, as the maps holding the query params and body content
+     * can be changed after they are set; callers hashing a request repeatedly should keep the result.
+     *
+     * @return hash code ignoring headers
+     */
+    public int headerlessHashCode() {
+        int result = path != null ? path.hashCode() : 0;
+        result = 31 * result + (method != null ? method.hashCode() : 0);
+        result = 31 * result + (hasBody() ? getBody().getContent().hashCode() : 0);
         result = 31 * result + (queryParams != null ? queryParams.hashCode() : 0);
         return result;
     }
@@ -357,12 +404,12 @@ public class AppRequest {
     public boolean matches(AppRequest that) {
         if(this == that) return true;
 
-        if(path != null ? !that.path.matches(path) : that.path != null) return false;
+        if(path != null ? !getPathPattern().matches(that.path) : that.path != null) return false;
         if(method != null ? !method.equals(that.method) : that.method != null) return false;
         if(queryParams != null ? !primedMapValuesAreContainedWithinOtherMap(queryParams, that.queryParams) : that.queryParams != null) return false;
         if(headers != null ? !primedMapValuesAreContainedWithinOtherMap(headers, that.headers) : that.headers != null) return false;
 
-        return bodyContentsMatch(body, that.body);
+        return !hasBody() || bodyContentsMatch(getBody(), that.getBody());
     }
 
     @Override
@@ -371,11 +418,18 @@ public class AppRequest {
                 "path='" + path + '\'' +
                 ", headers=" + headers +
                 ", method='" + method + '\'' +
-                ", body=" + body +
+                ", body=" + getBody() +
                 ", queryParams=" + queryParams +
                 '}';
     }
 
+    private CompiledPattern getPathPattern() {
+        if(pathPattern == null) {
+            pathPattern = CompiledPattern.regex(path);
+        }
+        return pathPattern;
+    }
+
     private boolean primedMapValuesAreContainedWithinOtherMap(Map<String, ?> primedParams, Map<String, ?> otherParams) {
         final Set<String> primedParamsKeys = primedParams.keySet();
         final Set<String> otherParamsKeys = otherParams.keySet();
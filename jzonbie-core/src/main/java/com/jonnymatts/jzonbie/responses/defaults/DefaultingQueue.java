@@ -3,26 +3,45 @@ package com.jonnymatts.jzonbie.responses.defaults;
 import com.google.common.collect.Lists;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 
-import java.util.ArrayDeque;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Arrays.asList;
 import static java.util.Optional.ofNullable;
 
+/**
+ * Queue of primed responses that falls back to a default response once empty.
+ * <p>
+ * Safe for concurrent use; each primed response is polled by at most one caller.
+ * <p>
+ * Keeps a count of the responses it has served and when it last served one. These
+ * are not part of the queue's equality.
+ */
 public class DefaultingQueue {
 
-    private final ArrayDeque<AppResponse> deque;
-    private DefaultAppResponse defaultResponse;
+    private final ConcurrentLinkedDeque<AppResponse> deque;
+    private volatile DefaultAppResponse defaultResponse;
+    private final LongAdder hitCount;
+    private volatile long lastHitMillis;
 
     public DefaultingQueue() {
-        deque = new ArrayDeque<>();
+        deque = new ConcurrentLinkedDeque<>();
+        hitCount = new LongAdder();
     }
 
     public AppResponse poll() {
         final AppResponse dequeElement = deque.poll();
-        return (dequeElement == null && defaultResponse != null) ? defaultResponse.getResponse() : dequeElement;
+        final DefaultAppResponse defaultResponse = this.defaultResponse;
+        final AppResponse response = (dequeElement == null && defaultResponse != null) ? defaultResponse.getResponse() : dequeElement;
+        if(response != null) {
+            hitCount.increment();
+            lastHitMillis = System.currentTimeMillis();
+        }
+        return response;
     }
 
     public void add(AppResponse element) {
@@ -37,6 +56,10 @@ public class DefaultingQueue {
         return deque.size();
     }
 
+    public boolean hasPrimed() {
+        return !deque.isEmpty();
+    }
+
     public List<AppResponse> getPrimed() {
         return Lists.newArrayList(deque.iterator());
     }
@@ -49,9 +72,20 @@ public class DefaultingQueue {
         return ofNullable(defaultResponse);
     }
 
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public Optional<Instant> getLastHit() {
+        final long lastHitMillis = this.lastHitMillis;
+        return lastHitMillis == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(lastHitMillis));
+    }
+
     public void reset() {
         deque.clear();
         defaultResponse = null;
+        hitCount.reset();
+        lastHitMillis = 0;
     }
 
     @Override
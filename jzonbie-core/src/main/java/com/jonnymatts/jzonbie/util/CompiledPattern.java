@@ -0,0 +1,63 @@
+package com.jonnymatts.jzonbie.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * A pattern string that has been compiled once for repeated matching.
+ * <p>
+ * Patterns that contain no regex characters are matched with {@link String#equals},
+ * avoiding the regex engine entirely.
+ */
+public class CompiledPattern {
+
+    private static final char[] REGEX_METACHARACTERS = new char[]{'\\', '^', '$', '.', '|', '?', '*', '+', '(', ')', '[', ']', '{', '}'};
+
+    private final String pattern;
+    private final Pattern compiled;
+
+    private CompiledPattern(String pattern, boolean isRegex) {
+        this.pattern = pattern;
+        this.compiled = isRegex ? Pattern.compile(pattern) : null;
+    }
+
+    /**
+     * Compiles the pattern as a regex. Matching is equivalent to {@link String#matches}.
+     *
+     * @param pattern regex pattern
+     * @return compiled pattern
+     */
+    public static CompiledPattern regex(String pattern) {
+        return new CompiledPattern(pattern, containsAny(pattern, REGEX_METACHARACTERS));
+    }
+
+    /**
+     * Compiles the pattern as a regex only if it contains any of the given characters,
+     * otherwise it is treated as a literal.
+     *
+     * @param pattern pattern
+     * @param regexCharacters characters that mark the pattern as a regex
+     * @return compiled pattern
+     */
+    public static CompiledPattern regexIfContainsAny(String pattern, char[] regexCharacters) {
+        return new CompiledPattern(pattern, containsAny(pattern, regexCharacters));
+    }
+
+    public boolean matches(String value) {
+        return compiled == null ? pattern.equals(value) : compiled.matcher(value).matches();
+    }
+
+    public boolean isLiteral() {
+        return compiled == null;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private static boolean containsAny(String pattern, char[] characters) {
+        for(char c : characters) {
+            if(pattern.indexOf(c) > -1) return true;
+        }
+        return false;
+    }
+}
@@ -1,5 +1,8 @@
 package com.jonnymatts.jzonbie.util;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.jonnymatts.jzonbie.Body;
 
 import java.math.BigDecimal;
@@ -10,17 +13,21 @@ import java.util.Objects;
 public class Matching {
 
     private static final char[] REGEX_CHARACTERS = new char[]{'+', '.', '*', '[', '{', '^', '|', '$', '?'};
+    private static final LoadingCache<String, CompiledPattern> PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .build(CacheLoader.from(pattern -> CompiledPattern.regexIfContainsAny(pattern, REGEX_CHARACTERS)));
 
     public static boolean mapValuesMatchWithRegex(Map<?, ?> patterns, Map<?, ?> values) {
         if(isNullOrEmpty(patterns) && isNullOrEmpty(values)) return true;
 
         if(!patterns.keySet().equals(values.keySet())) return false;
 
-        return patterns.entrySet().parallelStream().allMatch(e -> {
-            final Object pattern = e.getValue();
-            final Object value = values.get(e.getKey());
-            return matchRegexRecursively(pattern, value);
-        });
+        for(Map.Entry<?, ?> e : patterns.entrySet()) {
+            if(!matchRegexRecursively(e.getValue(), values.get(e.getKey())))
+                return false;
+        }
+
+        return true;
     }
 
     public static boolean listsMatchesRegex(List<?> patterns, List<?> values) {
@@ -58,15 +65,7 @@ public class Matching {
     }
 
     private static boolean stringsMatch(String pattern, String value) {
-        boolean isRegex = false;
-        for(char c : REGEX_CHARACTERS) {
-            if (pattern.indexOf(c) > -1) {
-                isRegex = true;
-                break;
-            }
-        }
-
-        return isRegex ? value.matches(pattern) : value.equals(pattern);
+        return PATTERNS.getUnchecked(pattern).matches(value);
     }
 
     private static boolean numbersEqual(Number number1, Number number2) {
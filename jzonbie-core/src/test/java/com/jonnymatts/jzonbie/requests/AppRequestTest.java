@@ -9,9 +9,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
+import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
 import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
 import static java.util.Collections.singletonList;
@@ -170,6 +172,98 @@ class AppRequestTest {
         assertThat(appRequest.matches(copy)).isTrue();
     }
 
+    @Test
+    void matchesUsesStringBodyOfOtherRequestAsRegex() throws Exception {
+        final AppRequest primed = get("/").withBody(stringBody("value"));
+        final AppRequest incoming = get("/").withBody(stringBody("val.*"));
+
+        assertThat(primed.matches(incoming)).isTrue();
+        assertThat(incoming.matches(primed)).isFalse();
+    }
+
+    @Test
+    void matchesUsesLiteralBodyOfOtherRequestAsRegex() throws Exception {
+        final AppRequest primed = get("/").withBody(literalBody("<data>1</data>"));
+        final AppRequest incoming = get("/").withBody(literalBody("<data>[0-9]</data>"));
+
+        assertThat(primed.matches(incoming)).isTrue();
+        assertThat(incoming.matches(primed)).isFalse();
+    }
+
+    @Test
+    void matchesComparesBodyWithoutRegexCharactersLiterally() throws Exception {
+        final AppRequest primed = get("/").withBody(stringBody("value"));
+
+        assertThat(primed.matches(get("/").withBody(stringBody("value")))).isTrue();
+        assertThat(primed.matches(get("/").withBody(stringBody("valu")))).isFalse();
+        assertThat(primed.matches(get("/").withBody(stringBody("values")))).isFalse();
+    }
+
+    @Test
+    void matchesReadsOtherBodyWithRegexCharactersAsRegex() throws Exception {
+        assertThat(get("/").withBody(literalBody("a.b")).matches(get("/").withBody(literalBody("a.b")))).isTrue();
+        assertThat(get("/").withBody(literalBody("fx")).matches(get("/").withBody(literalBody("f(x)")))).isTrue();
+        assertThat(get("/").withBody(literalBody("f(x)")).matches(get("/").withBody(literalBody("f(x)")))).isFalse();
+    }
+
+    @Test
+    void headerlessHashCodeIgnoresHeaders() throws Exception {
+        final AppRequest copy = new AppRequest(appRequest).withHeader("other", "header");
+
+        assertThat(copy.headerlessHashCode()).isEqualTo(appRequest.headerlessHashCode());
+    }
+
+    @Test
+    void headerlessHashCodeReflectsChangesToFields() throws Exception {
+        final AppRequest copy = new AppRequest(appRequest);
+        final int hashCode = copy.headerlessHashCode();
+
+        copy.withQueryParam("other", "value");
+        assertThat(copy.headerlessHashCode()).isNotEqualTo(hashCode);
+
+        copy.setQueryParams(appRequest.getQueryParams());
+        assertThat(copy.headerlessHashCode()).isEqualTo(hashCode);
+
+        copy.setPath("/other");
+        assertThat(copy.headerlessHashCode()).isNotEqualTo(hashCode);
+    }
+
+    @Test
+    void headerlessHashCodeReflectsChangesToQueryParamMap() throws Exception {
+        final AppRequest request = get("/").withQueryParam("key", "value");
+        final int hashCode = request.headerlessHashCode();
+
+        request.getQueryParams().get("key").add("other");
+
+        assertThat(request.headerlessHashCode()).isNotEqualTo(hashCode);
+    }
+
+    @Test
+    void withLazyBodyCreatesBodyOnceWhenFirstAccessed() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final AppRequest lazy = get("/").withLazyBody(() -> {
+            calls.incrementAndGet();
+            return stringBody("test");
+        });
+
+        assertThat(lazy.hasBody()).isTrue();
+        assertThat(calls).hasValue(0);
+
+        assertThat(lazy.getBody()).isEqualTo(stringBody("test"));
+        assertThat(lazy.getBody()).isEqualTo(stringBody("test"));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void matchesDoesNotCreateLazyBodyIfThisRequestHasNoBody() throws Exception {
+        appRequest.setBody(null);
+        final AppRequest lazy = new AppRequest(appRequest).withLazyBody(() -> {
+            throw new AssertionError("Body should not be created");
+        });
+
+        assertThat(appRequest.matches(lazy)).isTrue();
+    }
+
     static Stream<StaticBuilderData> staticBuilders() {
         return Stream.of(
             new StaticBuilderData("GET", AppRequest::get),
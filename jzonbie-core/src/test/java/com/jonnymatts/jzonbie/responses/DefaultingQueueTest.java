@@ -58,6 +58,18 @@ class DefaultingQueueTest {
         assertThat(got).isEqualTo(response2);
     }
 
+    @Test
+    void hasPrimedReturnsWhetherThereArePrimedElementsIgnoringTheDefault() throws Exception {
+        final DefaultingQueue queue = new DefaultingQueue();
+        queue.setDefault(staticDefault(response1));
+
+        assertThat(queue.hasPrimed()).isFalse();
+
+        queue.add(response2);
+
+        assertThat(queue.hasPrimed()).isTrue();
+    }
+
     @Test
     void resetClearsQueueAndRemovesDefaultElement() throws Exception {
         final DefaultingQueue queue = new DefaultingQueue();
@@ -108,4 +120,42 @@ class DefaultingQueueTest {
 
         assertThat(got.get().getResponse()).isEqualTo(response1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void pollCountsHitsWhenAResponseIsReturned() {
+        final DefaultingQueue queue = new DefaultingQueue();
+        queue.add(response1);
+        queue.setDefault(staticDefault(response2));
+
+        assertThat(queue.getHitCount()).isEqualTo(0);
+        assertThat(queue.getLastHit()).isEmpty();
+
+        queue.poll();
+        queue.poll();
+
+        assertThat(queue.getHitCount()).isEqualTo(2);
+        assertThat(queue.getLastHit()).isPresent();
+    }
+
+    @Test
+    void pollDoesNotCountHitWhenNoResponseIsReturned() {
+        final DefaultingQueue queue = new DefaultingQueue();
+
+        queue.poll();
+
+        assertThat(queue.getHitCount()).isEqualTo(0);
+        assertThat(queue.getLastHit()).isEmpty();
+    }
+
+    @Test
+    void resetClearsHits() {
+        final DefaultingQueue queue = new DefaultingQueue();
+        queue.add(response1);
+        queue.poll();
+
+        queue.reset();
+
+        assertThat(queue.getHitCount()).isEqualTo(0);
+        assertThat(queue.getLastHit()).isEmpty();
+    }
+}
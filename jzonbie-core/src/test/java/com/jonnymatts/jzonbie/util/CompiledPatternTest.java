@@ -0,0 +1,46 @@
+package com.jonnymatts.jzonbie.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledPatternTest {
+
+    private static final char[] REGEX_CHARACTERS = new char[]{'.', '*'};
+
+    @Test
+    void regexIsLiteralIfPatternContainsNoRegexCharacters() {
+        final CompiledPattern pattern = CompiledPattern.regex("/path/one");
+
+        assertThat(pattern.isLiteral()).isTrue();
+        assertThat(pattern.matches("/path/one")).isTrue();
+        assertThat(pattern.matches("/path/two")).isFalse();
+    }
+
+    @Test
+    void regexMatchesAsRegexIfPatternContainsRegexCharacters() {
+        final CompiledPattern pattern = CompiledPattern.regex("/path/(one|two)");
+
+        assertThat(pattern.isLiteral()).isFalse();
+        assertThat(pattern.matches("/path/two")).isTrue();
+        assertThat(pattern.matches("/path/three")).isFalse();
+    }
+
+    @Test
+    void regexIfContainsAnyIsLiteralIfPatternContainsNoneOfTheCharacters() {
+        final CompiledPattern pattern = CompiledPattern.regexIfContainsAny("value(1)", REGEX_CHARACTERS);
+
+        assertThat(pattern.isLiteral()).isTrue();
+        assertThat(pattern.matches("value(1)")).isTrue();
+        assertThat(pattern.matches("value1")).isFalse();
+    }
+
+    @Test
+    void regexIfContainsAnyMatchesAsRegexIfPatternContainsAnyOfTheCharacters() {
+        final CompiledPattern pattern = CompiledPattern.regexIfContainsAny("value.*", REGEX_CHARACTERS);
+
+        assertThat(pattern.isLiteral()).isFalse();
+        assertThat(pattern.matches("value1")).isTrue();
+        assertThat(pattern.matches("other")).isFalse();
+    }
+}
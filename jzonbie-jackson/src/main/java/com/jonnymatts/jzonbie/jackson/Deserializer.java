@@ -1,14 +1,15 @@
 package com.jonnymatts.jzonbie.jackson;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jonnymatts.jzonbie.Request;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-
-import static java.util.stream.Collectors.toList;
+import java.util.function.Consumer;
 
 public class Deserializer {
 
@@ -65,10 +66,32 @@ public class Deserializer {
         }
     }
 
+    /**
+     * Deserializes the elements of a JSON array one at a time, passing each to the consumer
+     * as soon as it is read, so the whole array is never held in memory.
+     *
+     * @param inputStream stream containing a JSON array, closed once read
+     * @param clazz class of the array elements
+     * @param consumer consumer of each deserialized element
+     * @param <T> type of the array elements
+     * @return number of elements read
+     */
+    public <T> int deserializeEach(InputStream inputStream, Class<T> clazz, Consumer<? super T> consumer) {
+        try(MappingIterator<T> values = objectMapper.readerFor(clazz).readValues(inputStream)) {
+            int count = 0;
+            while(values.hasNextValue()) {
+                consumer.accept(values.nextValue());
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new DeserializationException(String.format("Error deserializing %s", clazz.getSimpleName()), e);
+        }
+    }
+
     public <T> List<T> deserializeCollection(String s, Class<T> clazz) {
         try {
-            final List<Map<String, Object>> maps = objectMapper.readValue(s, new TypeReference<List<T>>() {});
-            return maps.stream().map(t -> deserialize(t, clazz)).collect(toList());
+            return objectMapper.readValue(s, objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
         } catch (IOException e) {
             throw new DeserializationException("Error deserializing %s", e);
         }
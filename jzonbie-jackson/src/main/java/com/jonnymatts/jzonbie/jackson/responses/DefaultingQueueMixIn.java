@@ -1,12 +1,14 @@
 package com.jonnymatts.jzonbie.jackson.responses;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 
-import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
+@JsonIgnoreProperties(value = {"hitCount", "lastHit"}, allowGetters = true)
 public abstract class DefaultingQueueMixIn {
 
     @JsonProperty("primed")
-    private ArrayDeque<AppResponse> deque;
+    private ConcurrentLinkedDeque<AppResponse> deque;
 }
\ No newline at end of file
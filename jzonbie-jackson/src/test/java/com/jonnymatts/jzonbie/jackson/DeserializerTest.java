@@ -8,10 +8,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -72,6 +76,28 @@ class DeserializerTest {
                 .hasMessageContaining("Error deserializing");
     }
 
+    @Test
+    void deserializeEachPassesEveryArrayElementToConsumer() {
+        final String primings = "[" + ZOMBIE_PRIMING + "," + ZOMBIE_PRIMING + "]";
+        final List<ZombiePriming> got = new ArrayList<>();
+
+        final int count = deserializer.deserializeEach(new ByteArrayInputStream(primings.getBytes(UTF_8)), ZombiePriming.class, got::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(got).containsExactly(new ZombiePriming(get("/"), ok()), new ZombiePriming(get("/"), ok()));
+    }
+
+    @Test
+    void deserializeEachThrowsDeserializationExceptionIfDeserializationFails() {
+        final String primings = "[" + ZOMBIE_PRIMING + ", {\"request\": 1}]";
+        final List<ZombiePriming> got = new ArrayList<>();
+
+        assertThatThrownBy(() -> deserializer.deserializeEach(new ByteArrayInputStream(primings.getBytes(UTF_8)), ZombiePriming.class, got::add))
+                .isInstanceOf(DeserializationException.class)
+                .hasMessageContaining("Error deserializing");
+        assertThat(got).hasSize(1);
+    }
+
     @Test
     void deserializeReturnsEmptyMapIfStringIsEmpty() {
         final Map<String, Object> got = deserializer.deserialize("");
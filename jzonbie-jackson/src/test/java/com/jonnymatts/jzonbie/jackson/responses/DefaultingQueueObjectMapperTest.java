@@ -31,4 +31,20 @@ class DefaultingQueueObjectMapperTest {
 
         assertThat(got).isEqualTo(queue);
     }
-}
\ No newline at end of file
+
+    @Test
+    void defaultingQueueHitsAreSerializedButIgnoredWhenDeserialized() throws Exception {
+        final DefaultingQueue queue = new DefaultingQueue();
+        queue.setDefault(staticDefault(ok()));
+        queue.poll();
+
+        final String string = JZONBIE_OBJECT_MAPPER.writeValueAsString(queue);
+
+        assertThat(string).contains("\"hitCount\" : 1").contains("\"lastHit\"");
+
+        final DefaultingQueue got = JZONBIE_OBJECT_MAPPER.readValue(string, DefaultingQueue.class);
+
+        assertThat(got).isEqualTo(queue);
+        assertThat(got.getHitCount()).isEqualTo(0);
+    }
+}
@@ -5,6 +5,7 @@ import com.jonnymatts.jzonbie.JzonbieClient;
 import com.jonnymatts.jzonbie.JzonbieOptions;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
+import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
@@ -128,6 +129,10 @@ public class JzonbieRule<T extends Jzonbie> extends ExternalResource implements
         jzonbie.prime(file);
     }
 
+    public void primeAll(List<ZombiePriming> primings) {
+        jzonbie.primeAll(primings);
+    }
+
     public void verify(AppRequest appRequest) throws VerificationException {
         jzonbie.verify(appRequest);
     }
@@ -23,9 +23,12 @@ public class TestingClient {
     }
 
     public void execute(AppRequest request) {
-        final HttpUriRequest clientRequest = RequestBuilder.create(request.getMethod())
-                .setUri(baseUrl + request.getPath())
-                .build();
+        final RequestBuilder requestBuilder = RequestBuilder.create(request.getMethod())
+                .setUri(baseUrl + request.getPath());
+        if(request.getHeaders() != null) {
+            request.getHeaders().forEach(requestBuilder::addHeader);
+        }
+        final HttpUriRequest clientRequest = requestBuilder.build();
 
         try {
             client.execute(clientRequest);
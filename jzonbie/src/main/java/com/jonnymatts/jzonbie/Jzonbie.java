@@ -1,12 +1,17 @@
 package com.jonnymatts.jzonbie;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.jknack.handlebars.Handlebars;
+import com.google.common.cache.CacheStats;
 import com.jonnymatts.jzonbie.defaults.Priming;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory;
 import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.CallHistoryRecorder;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.history.FixedCapacityCallHistory;
+import com.jonnymatts.jzonbie.history.OffHeapCallHistory;
+import com.jonnymatts.jzonbie.history.SerializedSize;
 import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.jetty.JzonbieJettyServer;
 import com.jonnymatts.jzonbie.logging.Logging;
@@ -15,6 +20,7 @@ import com.jonnymatts.jzonbie.pippo.PippoResponder;
 import com.jonnymatts.jzonbie.priming.AppRequestFactory;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
+import com.jonnymatts.jzonbie.priming.PrimingNormalizer;
 import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.requests.AppRequestHandler;
@@ -26,6 +32,8 @@ import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse;
 import com.jonnymatts.jzonbie.ssl.HttpsSupport;
 import com.jonnymatts.jzonbie.templating.JzonbieHandlebars;
+import com.jonnymatts.jzonbie.tenants.Tenant;
+import com.jonnymatts.jzonbie.tenants.Tenants;
 import com.jonnymatts.jzonbie.templating.ResponseTransformer;
 import com.jonnymatts.jzonbie.verification.InvocationVerificationCriteria;
 import com.jonnymatts.jzonbie.verification.VerificationException;
@@ -33,11 +41,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ro.pippo.core.Pippo;
 import ro.pippo.core.WebServerSettings;
-import ro.pippo.core.util.IoUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.IOException;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.security.KeyStore;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -50,6 +58,7 @@ import static com.jonnymatts.jzonbie.JzonbieOptions.options;
 import static com.jonnymatts.jzonbie.defaults.DefaultResponsePriming.defaultPriming;
 import static com.jonnymatts.jzonbie.defaults.StandardPriming.priming;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Class that provide a mock HTTP(S) server.
@@ -87,18 +96,24 @@ public class Jzonbie implements JzonbieClient {
     }
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Jzonbie.class);
+    private static final String UNKNOWN_TENANT_NAME = "unknown";
 
     private final PrimingContext primingContext;
+    private final CallHistoryRecorder callHistoryRecorder;
     private final CallHistory callHistory;
     private final FixedCapacityCache<AppRequest> failedRequests;
+    private final Tenants tenants;
+    private final String tenantHeaderName;
     private final int httpPort;
     private final Integer httpsPort;
     private final Pippo httpPippo;
     private final Pippo httpsPippo;
     private final HttpsSupport httpsSupport;
+    private final ResponseTransformer responseTransformer;
     private Deserializer deserializer;
     private ObjectMapper objectMapper;
     private PrimedMappingUploader primedMappingUploader;
+    private PrimingNormalizer primingNormalizer;
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private Optional<Duration> waitAfterStop;
 
@@ -108,17 +123,23 @@ public class Jzonbie implements JzonbieClient {
 
     public Jzonbie(JzonbieOptions options) {
         this.httpsSupport = new HttpsSupport();
-        callHistory = new CallHistory(options.getCallHistoryCapacity());
-        failedRequests = new FixedCapacityCache<>(options.getFailedRequestsCapacity());
-        waitAfterStop = options.getWaitAfterStopping();
         objectMapper = options.getObjectMapper();
+        callHistoryRecorder = options.getAsyncCallHistoryQueueCapacity()
+                .map(queueCapacity -> new CallHistoryRecorder(queueCapacity, options.getAsyncCallHistoryOverflow()))
+                .orElse(null);
+        callHistory = createCallHistory(options);
+        failedRequests = createFailedRequests(options);
+        waitAfterStop = options.getWaitAfterStopping();
         deserializer = new Deserializer(objectMapper);
-        primingContext = new PrimingContext(getDefaultPriming(options));
+        primingContext = new PrimingContext(getDefaultPriming(options), options.getParallelMatchingThreshold());
+        tenantHeaderName = options.getTenantHeaderName().orElse(null);
+        tenants = createTenants(options);
         final AppRequestFactory appRequestFactory = new AppRequestFactory(deserializer);
         final CurrentPrimingFileResponseFactory fileResponseFactory = new CurrentPrimingFileResponseFactory(objectMapper);
-        primedMappingUploader = new PrimedMappingUploader(primingContext);
-        final AppRequestHandler appRequestHandler = new AppRequestHandler(primingContext, callHistory, failedRequests, appRequestFactory);
-        final ZombieRequestHandler zombieRequestHandler = new ZombieRequestHandler(options.getZombieHeaderName(), primingContext, callHistory, failedRequests, deserializer, fileResponseFactory, primedMappingUploader, httpsSupport);
+        primedMappingUploader = new PrimedMappingUploader(primingContext, deserializer);
+        primingNormalizer = new PrimingNormalizer(objectMapper);
+        final AppRequestHandler appRequestHandler = new AppRequestHandler(tenants, options.getCallHistorySampling(), appRequestFactory);
+        final ZombieRequestHandler zombieRequestHandler = new ZombieRequestHandler(options.getZombieHeaderName(), tenants, deserializer, fileResponseFactory, primedMappingUploader, httpsSupport);
 
         options.getRoutes().forEach(route -> {
             route.setJzonbieClient(this);
@@ -126,7 +147,7 @@ public class Jzonbie implements JzonbieClient {
         });
 
         final Handlebars handlebars = new JzonbieHandlebars();
-        final ResponseTransformer responseTransformer = new ResponseTransformer(handlebars);
+        responseTransformer = new ResponseTransformer(handlebars, options.getTemplateCacheCapacity());
         final PippoResponder pippoResponder = new PippoResponder(responseTransformer, objectMapper);
 
         final PippoApplication application = new PippoApplication(options.getZombieHeaderName(), options.getRoutes(), appRequestHandler, zombieRequestHandler, pippoResponder);
@@ -173,6 +194,57 @@ public class Jzonbie implements JzonbieClient {
         return httpsPort;
     }
 
+    /**
+     * Returns the hit, miss and eviction counts of the compiled response template cache.
+     *
+     * @return template cache statistics
+     */
+    public CacheStats getTemplateCacheStats() {
+        return responseTransformer.getTemplateCacheStats();
+    }
+
+    /**
+     * Returns the name of the header that selects a tenant, if tenants are configured.
+     *
+     * @return tenant header name
+     */
+    public Optional<String> getTenantHeaderName() {
+        return Optional.ofNullable(tenantHeaderName);
+    }
+
+    /**
+     * Returns a client for a tenant of this Jzonbie. The client primes, verifies and resets
+     * only the tenant, which sees only the requests sent with its name in the tenant header.
+     * The tenant is created when it is first primed, and until then calls naming it are
+     * served the default priming without being recorded. Resetting the tenant discards it,
+     * so the next priming starts again from the default priming.
+     *
+     * @param tenant name of the tenant
+     * @throws IllegalStateException if no tenant header is configured
+     * @return client for the tenant
+     */
+    public JzonbieClient forTenant(String tenant) {
+        if(tenantHeaderName == null) {
+            throw new IllegalStateException("No tenant header configured");
+        }
+        return new TenantClient(tenant);
+    }
+
+    /**
+     * Creates a tenant of this Jzonbie, if it does not exist yet, and returns a client for
+     * it. Unlike a tenant that has only been named, its calls are recorded from the start,
+     * including calls served only by the default priming.
+     *
+     * @param tenant name of the tenant
+     * @throws IllegalStateException if no tenant header is configured, or the maximum number of tenants already exist
+     * @return client for the tenant
+     */
+    public JzonbieClient createTenant(String tenant) {
+        final JzonbieClient client = forTenant(tenant);
+        tenants.getOrCreate(tenant);
+        return client;
+    }
+
     @Override
     public KeyStore getTruststore() {
         return httpsSupport.getTrustStore();
@@ -180,37 +252,22 @@ public class Jzonbie implements JzonbieClient {
 
     @Override
     public void prime(AppRequest request, AppResponse response) {
-        final ZombiePriming zombiePriming = new ZombiePriming(request, response);
-        final ZombiePriming deserialized = normalizeForPriming(zombiePriming, ZombiePriming.class);
-        primingContext.add(deserialized);
+        prime(primingContext, request, response);
     }
 
     @Override
-    public void prime(File file) {
-        primedMappingUploader.upload(getPrimedMappingsFromFile(file));
+    public void primeAll(List<ZombiePriming> primings) {
+        primeAll(primingContext, primings);
     }
 
     @Override
-    public void prime(AppRequest request, DefaultAppResponse defaultAppResponse) {
-        final AppRequest appRequest = normalizeForPriming(request, AppRequest.class);
-
-        if(defaultAppResponse instanceof StaticDefaultAppResponse) {
-            primingContext.addDefault(appRequest, normalizeStaticDefault(defaultAppResponse));
-        }
-
-        primingContext.addDefault(appRequest, defaultAppResponse);
-    }
-
-    private DefaultAppResponse normalizeStaticDefault(DefaultAppResponse defaultAppResponse) {
-        return normalizeForPriming(defaultAppResponse, StaticDefaultAppResponse.class);
+    public void prime(File file) {
+        primedMappingUploader.upload(primingContext, openPrimingFile(file));
     }
 
-    private <T> T normalizeForPriming(T appRequest, Class<? extends T> clazz) {
-        try {
-            return deserializer.deserialize(objectMapper.writeValueAsString(appRequest), clazz);
-        } catch(JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+    @Override
+    public void prime(AppRequest request, DefaultAppResponse defaultAppResponse) {
+        prime(primingContext, request, defaultAppResponse);
     }
 
     @Override
@@ -236,9 +293,7 @@ public class Jzonbie implements JzonbieClient {
 
     @Override
     public void reset() {
-        primingContext.reset();
-        callHistory.clear();
-        failedRequests.clear();
+        tenants.reset(tenants.getDefault());
     }
 
     /**
@@ -249,6 +304,9 @@ public class Jzonbie implements JzonbieClient {
         if(httpsPippo != null) {
             httpsPippo.stop();
         }
+        if(callHistoryRecorder != null) {
+            callHistoryRecorder.stop();
+        }
         waitAfterStop.ifPresent(wait -> {
             try {
                 Thread.sleep(wait.toMillis());
@@ -256,6 +314,57 @@ public class Jzonbie implements JzonbieClient {
         });
     }
 
+    private void prime(PrimingContext primingContext, AppRequest request, AppResponse response) {
+        primingContext.add(primingNormalizer.normalize(new ZombiePriming(request, response)));
+    }
+
+    private void primeAll(PrimingContext primingContext, List<ZombiePriming> primings) {
+        primingContext.addAll(primings.stream().map(primingNormalizer::normalize).collect(toList()));
+    }
+
+    private void prime(PrimingContext primingContext, AppRequest request, DefaultAppResponse defaultAppResponse) {
+        final AppRequest appRequest = primingNormalizer.normalize(request);
+
+        if(defaultAppResponse instanceof StaticDefaultAppResponse) {
+            primingContext.addDefault(appRequest, primingNormalizer.normalize((StaticDefaultAppResponse) defaultAppResponse));
+        } else {
+            primingContext.addDefault(appRequest, defaultAppResponse);
+        }
+    }
+
+    private CallHistory createCallHistory(JzonbieOptions options) {
+        final Duration callHistoryTimeToLive = options.getCallHistoryTimeToLive().orElse(null);
+        final CallHistory storedCallHistory = options.getCallHistoryMaxBytes()
+                .<CallHistory>map(maxBytes -> new OffHeapCallHistory(maxBytes, callHistoryTimeToLive, objectMapper))
+                .orElseGet(() -> new FixedCapacityCallHistory(options.getCallHistoryCapacity(), callHistoryTimeToLive));
+        return callHistoryRecorder == null ? storedCallHistory : new AsyncCallHistory(storedCallHistory, callHistoryRecorder);
+    }
+
+    private Tenants createTenants(JzonbieOptions options) {
+        final Tenant defaultTenant = new Tenant(null, primingContext, callHistory, failedRequests);
+        if(tenantHeaderName == null) {
+            return new Tenants(defaultTenant);
+        }
+        final Tenant unknownTenant = new Tenant(UNKNOWN_TENANT_NAME, primingContext.withDefaultPrimingOnly(), new FixedCapacityCallHistory(0), new FixedCapacityCache<>(0));
+        return new Tenants(
+                defaultTenant,
+                tenantHeaderName,
+                name -> new Tenant(name, primingContext.withDefaultPrimingOnly(), () -> createCallHistory(options), () -> createFailedRequests(options)),
+                unknownTenant,
+                options.getMaxTenants(),
+                options.getTenantIdleTimeout().orElse(null)
+        );
+    }
+
+    private FixedCapacityCache<AppRequest> createFailedRequests(JzonbieOptions options) {
+        return new FixedCapacityCache<>(
+                options.getFailedRequestsCapacity(),
+                options.getFailedRequestsTimeToLive().orElse(null),
+                options.getFailedRequestsMaxBytes().orElse(Long.MAX_VALUE),
+                new SerializedSize(objectMapper)
+        );
+    }
+
     private Pippo createPippo(PippoApplication application, int port) {
         final Pippo pippo = new Pippo(application);
         final JzonbieJettyServer server = new JzonbieJettyServer();
@@ -292,21 +401,87 @@ public class Jzonbie implements JzonbieClient {
 
     private List<Priming> getDefaultPrimingFromFile(File file) {
         final List<Priming> priming = new ArrayList<>();
-        final List<PrimedMapping> primedMappings = getPrimedMappingsFromFile(file);
-        for (PrimedMapping primedMapping : primedMappings) {
+        deserializer.deserializeEach(openPrimingFile(file), PrimedMapping.class, primedMapping -> {
             final AppRequest request = primedMapping.getRequest();
             primedMapping.getResponses().getPrimed().forEach(response -> priming.add(priming(request, response)));
             primedMapping.getResponses().getDefault().ifPresent(defaultResponse -> priming.add(defaultPriming(request, defaultResponse)));
-        }
+        });
         return priming;
     }
 
-    private List<PrimedMapping> getPrimedMappingsFromFile(File file) {
+    private InputStream openPrimingFile(File file) {
         try {
-            final String mappingsString = IoUtils.toString(new FileInputStream(file));
-            return deserializer.deserializeCollection(mappingsString, PrimedMapping.class);
-        } catch (IOException e) {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    private class TenantClient implements JzonbieClient {
+
+        private final String name;
+
+        private TenantClient(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void prime(AppRequest request, AppResponse response) {
+            Jzonbie.this.prime(primedTenant().getPrimingContext(), request, response);
+        }
+
+        @Override
+        public void primeAll(List<ZombiePriming> primings) {
+            Jzonbie.this.primeAll(primedTenant().getPrimingContext(), primings);
+        }
+
+        @Override
+        public void prime(File file) {
+            primedMappingUploader.upload(primedTenant().getPrimingContext(), openPrimingFile(file));
+        }
+
+        @Override
+        public void prime(AppRequest request, DefaultAppResponse defaultAppResponse) {
+            Jzonbie.this.prime(primedTenant().getPrimingContext(), request, defaultAppResponse);
+        }
+
+        @Override
+        public List<PrimedMapping> getCurrentPriming() {
+            return tenant().getPrimingContext().getCurrentPriming();
+        }
+
+        @Override
+        public List<Exchange> getHistory() {
+            return tenant().getCallHistory().getValues();
+        }
+
+        @Override
+        public List<AppRequest> getFailedRequests() {
+            return tenant().getFailedRequests().getValues();
+        }
+
+        @Override
+        public void verify(AppRequest request, InvocationVerificationCriteria criteria) throws VerificationException {
+            final int count = tenant().getCallHistory().count(request);
+            criteria.verify(count);
+        }
+
+        @Override
+        public void reset() {
+            tenants.reset(tenant());
+        }
+
+        @Override
+        public KeyStore getTruststore() {
+            return Jzonbie.this.getTruststore();
+        }
+
+        private Tenant tenant() {
+            return tenants.find(name);
+        }
+
+        private Tenant primedTenant() {
+            return tenants.getOrCreate(name);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.jonnymatts.jzonbie;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jonnymatts.jzonbie.defaults.Priming;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory;
+import com.jonnymatts.jzonbie.history.CallHistorySampling;
 import com.jonnymatts.jzonbie.jackson.JzonbieObjectMapper;
 import com.jonnymatts.jzonbie.pippo.JzonbieRoute;
 
@@ -51,7 +53,11 @@ public class JzonbieOptions {
     private static final List<JzonbieRoute> DEFAULT_ROUTES = emptyList();
     private static final List<Priming> DEFAULT_PRIMING = emptyList();
     private static final int DEFAULT_CALL_HISTORY_CAPACITY = 1000;
+    private static final CallHistorySampling DEFAULT_CALL_HISTORY_SAMPLING = CallHistorySampling.all();
     private static final int DEFAULT_FAILED_REQUESTS_CAPACITY = 1000;
+    private static final int DEFAULT_PARALLEL_MATCHING_THRESHOLD = 0;
+    private static final int DEFAULT_TEMPLATE_CACHE_CAPACITY = 1000;
+    private static final int DEFAULT_MAX_TENANTS = 1000;
 
     private int httpPort;
     private String zombieHeaderName;
@@ -61,9 +67,21 @@ public class JzonbieOptions {
     private List<Priming> priming;
     private HttpsOptions httpsOptions;
     private int callHistoryCapacity;
+    private Long callHistoryMaxBytes;
+    private Duration callHistoryTimeToLive;
+    private CallHistorySampling callHistorySampling;
+    private Integer asyncCallHistoryQueueCapacity;
+    private AsyncCallHistory.Overflow asyncCallHistoryOverflow;
     private int failedRequestsCapacity;
+    private Long failedRequestsMaxBytes;
+    private Duration failedRequestsTimeToLive;
+    private int parallelMatchingThreshold;
+    private int templateCacheCapacity;
     private File initialPrimingFile;
     private File defaultPrimingFile;
+    private String tenantHeaderName;
+    private int maxTenants;
+    private Duration tenantIdleTimeout;
 
     private JzonbieOptions() {
         this.httpPort = DEFAULT_PORT;
@@ -72,7 +90,11 @@ public class JzonbieOptions {
         this.routes = DEFAULT_ROUTES;
         this.priming = DEFAULT_PRIMING;
         this.callHistoryCapacity = DEFAULT_CALL_HISTORY_CAPACITY;
+        this.callHistorySampling = DEFAULT_CALL_HISTORY_SAMPLING;
         this.failedRequestsCapacity = DEFAULT_FAILED_REQUESTS_CAPACITY;
+        this.parallelMatchingThreshold = DEFAULT_PARALLEL_MATCHING_THRESHOLD;
+        this.templateCacheCapacity = DEFAULT_TEMPLATE_CACHE_CAPACITY;
+        this.maxTenants = DEFAULT_MAX_TENANTS;
     }
 
     /**
@@ -203,6 +225,68 @@ public class JzonbieOptions {
         return this;
     }
 
+    /**
+     * Configures Jzonbie to store its call history off-heap in serialized form,
+     * bounded by the given number of bytes rather than by a call history capacity.
+     * <p>
+     * Stored calls are only deserialized when the call history is read or counted.
+     * By default Jzonbie will store its call history on-heap.
+     *
+     * @param maxBytes maximum number of bytes used to store the call history
+     * @return this Jzonbie configuration with an off-heap call history
+     */
+    public JzonbieOptions withCallHistoryMaxBytes(long maxBytes) {
+        this.callHistoryMaxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Configures Jzonbie to drop calls from its call history once they are older than the given duration.
+     * <p>
+     * Expired calls are evicted as new calls are recorded. By default Jzonbie will keep
+     * calls until they are evicted by the call history capacity.
+     *
+     * @param timeToLive how long calls are kept for
+     * @return this Jzonbie configuration with the given call history time to live
+     */
+    public JzonbieOptions withCallHistoryTimeToLive(Duration timeToLive) {
+        this.callHistoryTimeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * Configures which calls Jzonbie records in its call history.
+     * <p>
+     * Calls that are not sampled are not seen when verifying or counting calls.
+     * By default Jzonbie will record every call.
+     *
+     * @param sampling call history sampling policy
+     * @return this Jzonbie configuration with the given call history sampling
+     * @see CallHistorySampling
+     */
+    public JzonbieOptions withCallHistorySampling(CallHistorySampling sampling) {
+        this.callHistorySampling = sampling;
+        return this;
+    }
+
+    /**
+     * Configures Jzonbie to record its call history on a background thread, so serving
+     * a request only queues the call to be recorded. Every tenant shares the thread and
+     * the queue.
+     * <p>
+     * Reading, counting and verifying calls wait for queued calls to be recorded first.
+     * By default Jzonbie will record calls on the request thread.
+     *
+     * @param queueCapacity maximum number of calls waiting to be recorded
+     * @param overflow whether calls are dropped or requests wait when the queue is full
+     * @return this Jzonbie configuration with asynchronous call history recording
+     */
+    public JzonbieOptions withAsyncCallHistoryRecording(int queueCapacity, AsyncCallHistory.Overflow overflow) {
+        this.asyncCallHistoryQueueCapacity = queueCapacity;
+        this.asyncCallHistoryOverflow = overflow;
+        return this;
+    }
+
     /**
      * Configures max capacity of Jzonbie failed requests cache.
      * <p>
@@ -216,6 +300,63 @@ public class JzonbieOptions {
         return this;
     }
 
+    /**
+     * Configures max size in bytes of Jzonbie failed requests cache, measured by the
+     * serialized size of each failed request.
+     * <p>
+     * The oldest failed requests are evicted as new ones are recorded. By default Jzonbie
+     * will only bound failed requests by the failed request capacity.
+     *
+     * @param maxBytes maximum number of bytes of failed requests
+     * @return this Jzonbie configuration with the given failed request size
+     */
+    public JzonbieOptions withFailedRequestsMaxBytes(long maxBytes) {
+        this.failedRequestsMaxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Configures Jzonbie to drop failed requests once they are older than the given duration.
+     * <p>
+     * Expired failed requests are evicted as new ones are recorded. By default Jzonbie
+     * will keep failed requests until they are evicted by the failed request capacity.
+     *
+     * @param timeToLive how long failed requests are kept for
+     * @return this Jzonbie configuration with the given failed request time to live
+     */
+    public JzonbieOptions withFailedRequestsTimeToLive(Duration timeToLive) {
+        this.failedRequestsTimeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * Configures Jzonbie to match primings in parallel for requests primed with
+     * at least the given number of header variations.
+     * <p>
+     * By default Jzonbie will always match primings sequentially. Parallel matching
+     * is only worthwhile for very large priming sets.
+     *
+     * @param threshold minimum number of primings to match in parallel, or <b>0</b> to disable
+     * @return this Jzonbie configuration with the given parallel matching threshold
+     */
+    public JzonbieOptions withParallelMatchingThreshold(int threshold) {
+        this.parallelMatchingThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Configures max capacity of Jzonbie compiled response template cache.
+     * <p>
+     * By default Jzonbie will have a template cache capacity of <b>1000</b>.
+     *
+     * @param capacity template cache capacity
+     * @return this Jzonbie configuration with the given template cache capacity
+     */
+    public JzonbieOptions withTemplateCacheCapacity(int capacity) {
+        this.templateCacheCapacity = capacity;
+        return this;
+    }
+
     /**
      * Specifies a JSON file containing priming that will be applied on Jzonbie start-up.
      *
@@ -239,6 +380,52 @@ public class JzonbieOptions {
         return this;
     }
 
+    /**
+     * Specifies the name of the HTTP header that selects a tenant.
+     * <p>
+     * Each tenant has its own priming, call history and failed requests, so that
+     * several clients can share a Jzonbie without seeing each other's priming or
+     * calls. A tenant is created with the default priming when it is first primed,
+     * and until then calls naming it are served the default priming without being
+     * recorded. Requests without the header belong to the default tenant, which is
+     * the one used by the Jzonbie itself.
+     *
+     * @param tenantHeaderName name of the tenant header
+     * @return this Jzonbie configuration with tenant header name
+     */
+    public JzonbieOptions withTenantHeaderName(String tenantHeaderName) {
+        this.tenantHeaderName = tenantHeaderName;
+        return this;
+    }
+
+    /**
+     * Configures the maximum number of tenants, besides the default tenant.
+     * <p>
+     * Priming a new tenant fails once the maximum is reached, until a tenant is reset
+     * or removed for being idle. By default Jzonbie allows 1000 tenants.
+     *
+     * @param maxTenants maximum number of tenants
+     * @return this Jzonbie configuration with the given maximum number of tenants
+     */
+    public JzonbieOptions withMaxTenants(int maxTenants) {
+        this.maxTenants = maxTenants;
+        return this;
+    }
+
+    /**
+     * Configures Jzonbie to remove tenants that have not been used for the given duration.
+     * <p>
+     * Idle tenants are removed when another tenant is created. By default Jzonbie
+     * will keep tenants until they are reset.
+     *
+     * @param idleTimeout how long a tenant can go unused
+     * @return this Jzonbie configuration with the given tenant idle timeout
+     */
+    public JzonbieOptions withTenantIdleTimeout(Duration idleTimeout) {
+        this.tenantIdleTimeout = idleTimeout;
+        return this;
+    }
+
     public int getHttpPort() {
         return httpPort;
     }
@@ -269,10 +456,46 @@ public class JzonbieOptions {
         return callHistoryCapacity;
     }
 
+    public Optional<Long> getCallHistoryMaxBytes() {
+        return Optional.ofNullable(callHistoryMaxBytes);
+    }
+
+    public Optional<Duration> getCallHistoryTimeToLive() {
+        return Optional.ofNullable(callHistoryTimeToLive);
+    }
+
+    public CallHistorySampling getCallHistorySampling() {
+        return callHistorySampling;
+    }
+
+    public Optional<Integer> getAsyncCallHistoryQueueCapacity() {
+        return Optional.ofNullable(asyncCallHistoryQueueCapacity);
+    }
+
+    public AsyncCallHistory.Overflow getAsyncCallHistoryOverflow() {
+        return asyncCallHistoryOverflow;
+    }
+
     public int getFailedRequestsCapacity() {
         return failedRequestsCapacity;
     }
 
+    public Optional<Long> getFailedRequestsMaxBytes() {
+        return Optional.ofNullable(failedRequestsMaxBytes);
+    }
+
+    public Optional<Duration> getFailedRequestsTimeToLive() {
+        return Optional.ofNullable(failedRequestsTimeToLive);
+    }
+
+    public int getParallelMatchingThreshold() {
+        return parallelMatchingThreshold;
+    }
+
+    public int getTemplateCacheCapacity() {
+        return templateCacheCapacity;
+    }
+
     public Optional<File> getInitialPrimingFile() {
         return Optional.ofNullable(initialPrimingFile);
     }
@@ -280,4 +503,16 @@ public class JzonbieOptions {
     public Optional<File> getDefaultPrimingFile() {
         return Optional.ofNullable(defaultPrimingFile);
     }
+
+    public Optional<String> getTenantHeaderName() {
+        return Optional.ofNullable(tenantHeaderName);
+    }
+
+    public int getMaxTenants() {
+        return maxTenants;
+    }
+
+    public Optional<Duration> getTenantIdleTimeout() {
+        return Optional.ofNullable(tenantIdleTimeout);
+    }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.jonnymatts.jzonbie.cli;
 
 import com.jonnymatts.jzonbie.HttpsOptions;
 import com.jonnymatts.jzonbie.JzonbieOptions;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory;
+import com.jonnymatts.jzonbie.history.CallHistorySampling;
 import picocli.CommandLine;
+import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Option;
 
 import java.io.File;
+import java.time.Duration;
 
 import static com.jonnymatts.jzonbie.HttpsOptions.httpsOptions;
 import static com.jonnymatts.jzonbie.JzonbieOptions.options;
@@ -39,15 +43,54 @@ public class CommandLineOptions {
     @Option(names = {"--call-history-capacity"}, paramLabel = "SIZE", description = "maximum capacity of the stored call history")
     public Integer callHistoryCapacity;
 
+    @Option(names = {"--call-history-max-bytes"}, paramLabel = "BYTES", description = "store the call history off-heap, bounded by the given number of bytes")
+    public Long callHistoryMaxBytes;
+
+    @Option(names = {"--call-history-ttl"}, paramLabel = "DURATION", description = "how long calls are kept in the call history, as an ISO-8601 duration (e.g. PT10M)")
+    public Duration callHistoryTimeToLive;
+
+    @ArgGroup(exclusive = true)
+    public CallHistorySamplingOptions callHistorySampling;
+
+    @Option(names = {"--call-history-async-queue-capacity"}, paramLabel = "SIZE", description = "record the call history on a background thread, queueing up to the given number of calls")
+    public Integer asyncCallHistoryQueueCapacity;
+
+    @Option(names = {"--call-history-async-overflow"}, paramLabel = "POLICY", description = "what to do when the call history queue is full: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+    public AsyncCallHistory.Overflow asyncCallHistoryOverflow = AsyncCallHistory.Overflow.BLOCK;
+
     @Option(names = {"--failed-requests-capacity"}, paramLabel = "SIZE", description = "maximum capacity of the stored failed requests")
     public Integer failedRequestsCapacity;
 
+    @Option(names = {"--failed-requests-max-bytes"}, paramLabel = "BYTES", description = "maximum serialized size of the stored failed requests")
+    public Long failedRequestsMaxBytes;
+
+    @Option(names = {"--failed-requests-ttl"}, paramLabel = "DURATION", description = "how long failed requests are kept, as an ISO-8601 duration (e.g. PT10M)")
+    public Duration failedRequestsTimeToLive;
+
     @Option(names = {"--initial-priming-file"}, paramLabel = "PATH", description = "path to initial priming file JSON")
     public File initialPrimingFile;
 
     @Option(names = {"--default-priming-file"}, paramLabel = "PATH", description = "path to default priming file JSON")
     public File defaultPrimingFile;
 
+    @Option(names = {"--tenant-header-name"}, paramLabel = "NAME", description = "name of the HTTP header used to select an isolated tenant")
+    public String tenantHeaderName;
+
+    @Option(names = {"--max-tenants"}, paramLabel = "SIZE", description = "maximum number of tenants")
+    public Integer maxTenants;
+
+    @Option(names = {"--tenant-idle-timeout"}, paramLabel = "DURATION", description = "how long a tenant can go unused before it is removed, as an ISO-8601 duration (e.g. PT10M)")
+    public Duration tenantIdleTimeout;
+
+    public static class CallHistorySamplingOptions {
+
+        @Option(names = {"--call-history-sample-one-in"}, paramLabel = "N", description = "only record one in every N calls in the call history")
+        public Integer callHistorySampleOneIn;
+
+        @Option(names = {"--call-history-failures-only"}, description = "only record calls primed with an error response in the call history")
+        public boolean callHistoryFailuresOnly;
+    }
+
     public static CommandLineOptions parse(String[] args) {
         final CommandLine cmd = new CommandLine(CommandLineOptions.class);
         cmd.parseArgs(args);
@@ -65,9 +108,31 @@ public class CommandLineOptions {
         if(commandLineOptions.callHistoryCapacity != null) {
             options.withCallHistoryCapacity(commandLineOptions.callHistoryCapacity);
         }
+        if(commandLineOptions.callHistoryMaxBytes != null) {
+            options.withCallHistoryMaxBytes(commandLineOptions.callHistoryMaxBytes);
+        }
+        if(commandLineOptions.callHistoryTimeToLive != null) {
+            options.withCallHistoryTimeToLive(commandLineOptions.callHistoryTimeToLive);
+        }
+        final CallHistorySamplingOptions callHistorySampling = commandLineOptions.callHistorySampling;
+        if(callHistorySampling != null && callHistorySampling.callHistorySampleOneIn != null) {
+            options.withCallHistorySampling(CallHistorySampling.oneIn(callHistorySampling.callHistorySampleOneIn));
+        }
+        if(callHistorySampling != null && callHistorySampling.callHistoryFailuresOnly) {
+            options.withCallHistorySampling(CallHistorySampling.failuresOnly());
+        }
+        if(commandLineOptions.asyncCallHistoryQueueCapacity != null) {
+            options.withAsyncCallHistoryRecording(commandLineOptions.asyncCallHistoryQueueCapacity, commandLineOptions.asyncCallHistoryOverflow);
+        }
         if(commandLineOptions.failedRequestsCapacity != null) {
             options.withFailedRequestsCapacity(commandLineOptions.failedRequestsCapacity);
         }
+        if(commandLineOptions.failedRequestsMaxBytes != null) {
+            options.withFailedRequestsMaxBytes(commandLineOptions.failedRequestsMaxBytes);
+        }
+        if(commandLineOptions.failedRequestsTimeToLive != null) {
+            options.withFailedRequestsTimeToLive(commandLineOptions.failedRequestsTimeToLive);
+        }
         if(commandLineOptions.httpsEnabled) {
             final HttpsOptions httpsOptions = httpsOptions();
             if(commandLineOptions.httpsPort != null){
@@ -90,6 +155,15 @@ public class CommandLineOptions {
         if (commandLineOptions.defaultPrimingFile != null) {
             options.withDefaultPrimingFile(commandLineOptions.defaultPrimingFile);
         }
+        if (commandLineOptions.tenantHeaderName != null) {
+            options.withTenantHeaderName(commandLineOptions.tenantHeaderName);
+        }
+        if (commandLineOptions.maxTenants != null) {
+            options.withMaxTenants(commandLineOptions.maxTenants);
+        }
+        if (commandLineOptions.tenantIdleTimeout != null) {
+            options.withTenantIdleTimeout(commandLineOptions.tenantIdleTimeout);
+        }
         return options;
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.jonnymatts.jzonbie.requests.AppRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Call history that records exchanges on the background thread of a
+ * {@link CallHistoryRecorder}.
+ * <p>
+ * Adding an exchange only queues it with the recorder, which adds it to the wrapped
+ * history. Reading, counting and clearing first wait for every exchange added so far
+ * to be recorded, so callers always see their own calls.
+ */
+public class AsyncCallHistory implements CallHistory {
+
+    /**
+     * What to do with an exchange when the queue of exchanges to record is full.
+     */
+    public enum Overflow {
+        /** Drop the exchange without recording it. */
+        DROP,
+        /** Wait for space in the queue. */
+        BLOCK
+    }
+
+    private final CallHistory history;
+    private final CallHistoryRecorder recorder;
+
+    public AsyncCallHistory(CallHistory history, CallHistoryRecorder recorder) {
+        this.history = history;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void add(Exchange exchange) {
+        recorder.add(history, exchange);
+    }
+
+    @Override
+    public List<Exchange> getValues() {
+        recorder.awaitRecorded();
+        return history.getValues();
+    }
+
+    @Override
+    public Stream<Exchange> stream(Instant since) {
+        recorder.awaitRecorded();
+        return history.stream(since);
+    }
+
+    @Override
+    public int count(AppRequest appRequest) {
+        recorder.awaitRecorded();
+        return history.count(appRequest);
+    }
+
+    @Override
+    public void clear() {
+        recorder.awaitRecorded();
+        history.clear();
+    }
+}
@@ -1,15 +1,37 @@
 package com.jonnymatts.jzonbie.history;
 
+import com.fasterxml.jackson.annotation.JsonValue;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
-public class CallHistory extends FixedCapacityCache<Exchange> {
+/**
+ * History of the exchanges Jzonbie has served.
+ */
+public interface CallHistory {
 
-    public CallHistory(int capacity) {
-        super(capacity);
-    }
+    void add(Exchange exchange);
 
-    public int count(AppRequest appRequest) {
-        return (int)values.stream().filter(priming -> appRequest.matches(priming.getRequest())).count();
-    }
-}
\ No newline at end of file
+    @JsonValue
+    List<Exchange> getValues();
+
+    /**
+     * Streams the exchanges, oldest first.
+     *
+     * @param since if present, only exchanges added at or after this time are streamed
+     * @return stream of exchanges
+     */
+    Stream<Exchange> stream(Instant since);
+
+    /**
+     * Counts the exchanges whose request is matched by the given request.
+     *
+     * @param appRequest request to match recorded requests against
+     * @return number of matching exchanges
+     */
+    int count(AppRequest appRequest);
+
+    void clear();
+}
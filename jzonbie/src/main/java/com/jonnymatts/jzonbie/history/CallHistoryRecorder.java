@@ -0,0 +1,196 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory.Overflow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Records exchanges into call histories on a single background thread.
+ * <p>
+ * One recorder can be shared by the {@link AsyncCallHistory}s of every tenant of a
+ * Jzonbie, so recording uses one thread however many tenants there are. Adding an
+ * exchange only puts it on a bounded lock-free queue, which the recording thread
+ * drains into the history it was added to, so request threads do not contend on a
+ * lock to record their calls. The recording thread parks while the queue is empty
+ * and is woken by the next add. When the queue is full, exchanges are either dropped
+ * or the caller waits for space, depending on the {@link Overflow} policy. Once
+ * stopped, exchanges are recorded on the calling thread.
+ */
+public class CallHistoryRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CallHistoryRecorder.class);
+    private static final long STOP_CHECK_MILLIS = 100;
+    private static final long SPACE_CHECK_NANOS = MICROSECONDS.toNanos(50);
+
+    private final Overflow overflow;
+    private final RingQueue<Recording> queue;
+    private final AtomicLong enqueued;
+    private final AtomicLong recorded;
+    private final Object recordedMonitor;
+    private final Thread recorder;
+    private volatile boolean running;
+    private volatile boolean recorderWaiting;
+
+    public CallHistoryRecorder(int queueCapacity, Overflow overflow) {
+        this.overflow = overflow;
+        this.queue = new RingQueue<>(queueCapacity);
+        this.enqueued = new AtomicLong();
+        this.recorded = new AtomicLong();
+        this.recordedMonitor = new Object();
+        this.running = true;
+        this.recorder = new ThreadFactoryBuilder().setNameFormat("jzonbie-call-history-%d").setDaemon(true).build().newThread(this::record);
+        this.recorder.start();
+    }
+
+    /**
+     * Stops the recording thread, waiting for it to record every exchange queued so far.
+     * Exchanges added afterwards are recorded on the calling thread.
+     */
+    public void stop() {
+        running = false;
+        recorder.interrupt();
+        try {
+            recorder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void add(CallHistory history, Exchange exchange) {
+        final Recording recording = new Recording(history, exchange);
+        if(!running) {
+            recordQuietly(recording);
+            return;
+        }
+        enqueued.incrementAndGet();
+        if(!enqueue(recording)) {
+            markRecorded(1);
+            return;
+        }
+        if(!running && !recorder.isAlive()) {
+            drainStopped();
+        }
+    }
+
+    /**
+     * Waits for every exchange added so far to be recorded. Exchanges of every history
+     * sharing this recorder are waited for, as the queue does not separate them.
+     */
+    void awaitRecorded() {
+        final long target = enqueued.get();
+        synchronized(recordedMonitor) {
+            while(recorded.get() < target && (recorder.isAlive() || !queue.isEmpty())) {
+                if(!recorder.isAlive()) {
+                    drainStopped();
+                    continue;
+                }
+                try {
+                    recordedMonitor.wait(STOP_CHECK_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts an exchange on the queue, returning whether it was queued. Waiting for space
+     * gives up once stopped or interrupted, recording the exchange on the calling thread instead.
+     */
+    private boolean enqueue(Recording recording) {
+        while(!queue.offer(recording)) {
+            if(overflow == Overflow.DROP) return false;
+            if(!running || Thread.currentThread().isInterrupted()) {
+                recordQuietly(recording);
+                return false;
+            }
+            LockSupport.parkNanos(this, SPACE_CHECK_NANOS);
+        }
+        if(recorderWaiting) {
+            LockSupport.unpark(recorder);
+        }
+        return true;
+    }
+
+    /**
+     * Records exchanges queued while the recording thread was stopping, so none are left behind.
+     * The queue only allows one thread to poll, so callers take turns once the recording
+     * thread has finished.
+     */
+    private void drainStopped() {
+        synchronized(recordedMonitor) {
+            Recording recording;
+            while((recording = queue.poll()) != null) {
+                recordQuietly(recording);
+                markRecorded(1);
+            }
+        }
+    }
+
+    private void markRecorded(int count) {
+        recorded.addAndGet(count);
+        synchronized(recordedMonitor) {
+            recordedMonitor.notifyAll();
+        }
+    }
+
+    private void record() {
+        final List<Recording> batch = new ArrayList<>();
+        while(running || !queue.isEmpty()) {
+            if(queue.drainTo(batch) == 0) {
+                awaitRecordings();
+                continue;
+            }
+            batch.forEach(this::recordQuietly);
+            markRecorded(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Parks the recording thread until an exchange is added or it is stopped. Adds only
+     * wake the thread when it has said it is waiting, and it checks the queue again after
+     * saying so, so an exchange added in between is not left waiting for the next add.
+     */
+    private void awaitRecordings() {
+        recorderWaiting = true;
+        if(queue.isEmpty()) {
+            if(running) {
+                LockSupport.parkNanos(this, MILLISECONDS.toNanos(STOP_CHECK_MILLIS));
+            }
+        } else {
+            Thread.yield();
+        }
+        recorderWaiting = false;
+        Thread.interrupted();
+    }
+
+    private void recordQuietly(Recording recording) {
+        try {
+            recording.history.add(recording.exchange);
+        } catch (RuntimeException e) {
+            LOGGER.error("Exception occurred while recording call history", e);
+        }
+    }
+
+    private static class Recording {
+
+        private final CallHistory history;
+        private final Exchange exchange;
+
+        private Recording(CallHistory history, Exchange exchange) {
+            this.history = history;
+            this.exchange = exchange;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.jonnymatts.jzonbie.requests.AppRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Policy deciding which exchanges are recorded in the call history.
+ * <p>
+ * Sampling reduces the cost of recording under load, but verifying and counting
+ * calls only sees the exchanges that were recorded. Priming hit counts are not
+ * affected by sampling.
+ * <pre>
+ * {@code
+ * options().withCallHistorySampling(oneIn(100))
+ * }
+ * </pre>
+ */
+@FunctionalInterface
+public interface CallHistorySampling {
+
+    /**
+     * Decides whether an exchange is recorded.
+     *
+     * @param exchange exchange that has just been served
+     * @return true if the exchange should be added to the call history
+     */
+    boolean shouldRecord(Exchange exchange);
+
+    /**
+     * Records every exchange. This is the default.
+     *
+     * @return sampling policy recording every exchange
+     */
+    static CallHistorySampling all() {
+        return exchange -> true;
+    }
+
+    /**
+     * Records one in every {@code n} exchanges.
+     *
+     * @param n sampling interval
+     * @return sampling policy recording every n-th exchange
+     */
+    static CallHistorySampling oneIn(int n) {
+        if(n < 1) throw new IllegalArgumentException("Sampling interval must be at least 1");
+        final AtomicLong served = new AtomicLong();
+        return exchange -> served.getAndIncrement() % n == 0;
+    }
+
+    /**
+     * Records only exchanges where the primed response has an error status code.
+     *
+     * @return sampling policy recording only 4xx and 5xx responses
+     */
+    static CallHistorySampling failuresOnly() {
+        return exchange -> exchange.getResponse() != null && exchange.getResponse().getStatusCode() >= 400;
+    }
+
+    /**
+     * Records only exchanges whose request matches one of the given requests.
+     *
+     * @param requests requests to match against
+     * @return sampling policy recording only matching exchanges
+     */
+    static CallHistorySampling matching(AppRequest... requests) {
+        final List<AppRequest> patterns = asList(requests);
+        return exchange -> patterns.stream().anyMatch(pattern -> pattern.matches(exchange.getRequest()));
+    }
+}
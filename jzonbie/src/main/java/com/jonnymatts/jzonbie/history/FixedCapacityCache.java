@@ -2,33 +2,200 @@ package com.jonnymatts.jzonbie.history;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps the most recently added values, up to a fixed capacity.
+ * <p>
+ * Values are stored in a pre-sized ring buffer. Each add claims the next sequence
+ * number and writes into its slot, stamping the slot with that sequence once the
+ * value is visible, so adding does not allocate and does not take a lock. Readers
+ * only return values whose slot stamp is unchanged across the read, so a snapshot
+ * never contains a half-written or already-overwritten value.
+ * <p>
+ * The cache can also be bounded by the age of its values and by their total size
+ * in bytes. Each add evicts the oldest values until both bounds hold again, so there
+ * is no background sweep; expired values are hidden from readers until then.
+ */
 public class FixedCapacityCache<T> {
 
+    private static final long EMPTY = -1;
+    private static final long WRITING = Long.MIN_VALUE;
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
     private final int capacity;
-    final LinkedList<T> values;
+    private final long timeToLiveMillis;
+    private final long maxBytes;
+    private final ToLongFunction<? super T> byteSize;
+    private final AtomicReferenceArray<T> values;
+    private final AtomicLongArray addedAt;
+    private final AtomicLongArray bytes;
+    private final AtomicLongArray sequences;
+    private final AtomicLong nextSequence;
+    private final AtomicLong firstSequence;
+    private final AtomicLong storedBytes;
 
     public FixedCapacityCache(int capacity) {
-        this.capacity = capacity;
-        this.values = new LinkedList<>();
+        this(capacity, null, UNBOUNDED, value -> 0);
+    }
+
+    /**
+     * Creates a cache bounded by age and total size as well as by capacity.
+     *
+     * @param capacity maximum number of values
+     * @param timeToLive how long values are kept for, or null to keep them until evicted by capacity or size
+     * @param maxBytes maximum total size of the values, or {@link Long#MAX_VALUE} for no limit
+     * @param byteSize function measuring the size of a value in bytes
+     */
+    public FixedCapacityCache(int capacity, Duration timeToLive, long maxBytes, ToLongFunction<? super T> byteSize) {
+        this.capacity = Math.max(capacity, 0);
+        this.timeToLiveMillis = timeToLive == null ? UNBOUNDED : timeToLive.toMillis();
+        this.maxBytes = maxBytes;
+        this.byteSize = byteSize;
+        this.values = new AtomicReferenceArray<>(this.capacity);
+        this.addedAt = new AtomicLongArray(this.capacity);
+        this.bytes = new AtomicLongArray(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        this.nextSequence = new AtomicLong();
+        this.firstSequence = new AtomicLong();
+        this.storedBytes = new AtomicLong();
+        for(int i = 0; i < this.capacity; i++) {
+            sequences.set(i, EMPTY);
+        }
     }
 
     @JsonValue
     public List<T> getValues() {
-        return new ArrayList<>(values);
+        return stream(null).collect(toList());
+    }
+
+    /**
+     * Streams the values, oldest first. Values are read from the cache as the stream
+     * is consumed, so values evicted in the meantime are skipped.
+     *
+     * @param since if present, only values added at or after this time are streamed
+     * @return stream of values
+     */
+    public Stream<T> stream(Instant since) {
+        final long notBefore = Math.max(since == null ? Long.MIN_VALUE : since.toEpochMilli(), expiredBefore(System.currentTimeMillis()));
+        final long end = nextSequence.get();
+        final long start = Math.max(firstSequence.get(), end - capacity);
+        return LongStream.range(start, end)
+                .mapToObj(sequence -> read(sequence, notBefore))
+                .filter(Objects::nonNull);
     }
 
     public void add(T value) {
-        if(values.size() == capacity) {
-            values.removeFirst();
-        }
-        values.add(value);
+        append(value);
     }
 
     public void clear() {
-        values.clear();
+        final long end = nextSequence.get();
+        long head;
+        while((head = firstSequence.get()) < end) {
+            if(firstSequence.compareAndSet(head, end)) {
+                for(long sequence = Math.max(head, end - capacity); sequence < end; sequence++) {
+                    release(sequence);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a value, returning the sequence number it was stored under.
+     *
+     * @param value value to add
+     * @return sequence number of the value, or -1 if nothing can be stored
+     */
+    protected long append(T value) {
+        if(capacity == 0) return EMPTY;
+        final long size = maxBytes == UNBOUNDED ? 0 : byteSize.applyAsLong(value);
+        final long now = System.currentTimeMillis();
+        final long sequence = nextSequence.getAndIncrement();
+        final int index = index(sequence);
+        long current;
+        while(true) {
+            current = sequences.get(index);
+            if(current >= sequence) return sequence;
+            if(current != WRITING && sequences.compareAndSet(index, current, WRITING)) break;
+        }
+        if(current != EMPTY) storedBytes.addAndGet(-bytes.get(index));
+        values.set(index, value);
+        addedAt.set(index, now);
+        bytes.set(index, size);
+        sequences.set(index, sequence);
+        storedBytes.addAndGet(size);
+        evict(now);
+        return sequence;
+    }
+
+    /**
+     * Gets the value stored under a sequence number.
+     *
+     * @param sequence sequence number returned by {@link #append}
+     * @return the value, or null if it has been evicted, expired or cleared
+     */
+    protected T get(long sequence) {
+        if(capacity == 0 || sequence < Math.max(firstSequence.get(), nextSequence.get() - capacity)) return null;
+        return read(sequence, expiredBefore(System.currentTimeMillis()));
+    }
+
+    protected int getCapacity() {
+        return capacity;
+    }
+
+    private void evict(long now) {
+        if(timeToLiveMillis == UNBOUNDED && maxBytes == UNBOUNDED) return;
+        final long expiredBefore = expiredBefore(now);
+        while(true) {
+            final long head = firstSequence.get();
+            final long end = nextSequence.get();
+            if(head >= end) return;
+            if(head < end - capacity) {
+                firstSequence.compareAndSet(head, end - capacity);
+                continue;
+            }
+            final int index = index(head);
+            final long stamp = sequences.get(index);
+            if(stamp < head) return;
+            if(stamp == head && addedAt.get(index) >= expiredBefore && storedBytes.get() <= maxBytes) return;
+            if(firstSequence.compareAndSet(head, head + 1)) release(head);
+        }
+    }
+
+    private void release(long sequence) {
+        final int index = index(sequence);
+        if(!sequences.compareAndSet(index, sequence, WRITING)) return;
+        storedBytes.addAndGet(-bytes.get(index));
+        values.set(index, null);
+        sequences.set(index, EMPTY);
+    }
+
+    private T read(long sequence, long notBefore) {
+        final int index = index(sequence);
+        if(sequences.get(index) != sequence) return null;
+        final T value = values.get(index);
+        final long valueAddedAt = addedAt.get(index);
+        if(sequences.get(index) != sequence || valueAddedAt < notBefore) return null;
+        return value;
+    }
+
+    private long expiredBefore(long now) {
+        return timeToLiveMillis == UNBOUNDED ? Long.MIN_VALUE : now - timeToLiveMillis;
+    }
+
+    private int index(long sequence) {
+        return (int)(sequence % capacity);
     }
 }
@@ -0,0 +1,130 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.jonnymatts.jzonbie.requests.AppRequest;
+import com.jonnymatts.jzonbie.util.CompiledPattern;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * History of up to a fixed number of exchanges, indexed by request method and path.
+ * <p>
+ * Counting requests with a method only looks at exchanges with that method, and
+ * counting requests with a literal path only looks at exchanges for that path.
+ * <p>
+ * Index entries are dropped incrementally: when an add takes the slot of an older
+ * exchange, the stale heads of that exchange's method and path entries are dropped,
+ * and counting drops the stale heads of the entries it reads.
+ */
+public class FixedCapacityCallHistory extends FixedCapacityCache<Exchange> implements CallHistory {
+
+    private final ConcurrentHashMap<String, MethodIndex> index;
+    private final AtomicReferenceArray<AppRequest> indexedRequests;
+
+    public FixedCapacityCallHistory(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Creates a history that also drops exchanges once they are older than the given duration.
+     *
+     * @param capacity maximum number of exchanges
+     * @param timeToLive how long exchanges are kept for, or null to keep them until evicted by capacity
+     */
+    public FixedCapacityCallHistory(int capacity, Duration timeToLive) {
+        super(capacity, timeToLive, Long.MAX_VALUE, exchange -> 0);
+        this.index = new ConcurrentHashMap<>();
+        this.indexedRequests = new AtomicReferenceArray<>(getCapacity());
+    }
+
+    @Override
+    public void add(Exchange exchange) {
+        final long sequence = append(exchange);
+        if(sequence < 0) return;
+
+        final AppRequest request = exchange.getRequest();
+        if(request != null && request.getMethod() != null) {
+            index.computeIfAbsent(request.getMethod(), k -> new MethodIndex()).add(request.getPath(), sequence);
+        }
+
+        final AppRequest replaced = indexedRequests.getAndSet((int)(sequence % getCapacity()), request);
+        if(replaced != null && replaced.getMethod() != null) {
+            final MethodIndex methodIndex = index.get(replaced.getMethod());
+            if(methodIndex != null) {
+                dropStaleHeads(methodIndex.all);
+                if(replaced.getPath() != null) dropStaleHeads(methodIndex, replaced.getPath());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        index.clear();
+    }
+
+    @Override
+    public int count(AppRequest appRequest) {
+        if(appRequest.getMethod() == null) {
+            return (int)getValues().stream().filter(priming -> appRequest.matches(priming.getRequest())).count();
+        }
+
+        final MethodIndex methodIndex = index.get(appRequest.getMethod());
+        if(methodIndex == null) return 0;
+
+        final String path = appRequest.getPath();
+        final Queue<Long> sequences = path != null && CompiledPattern.regex(path).isLiteral()
+                ? dropStaleHeads(methodIndex, path)
+                : dropStaleHeads(methodIndex.all);
+        if(sequences == null) return 0;
+
+        int count = 0;
+        for(Long sequence : sequences) {
+            final Exchange exchange = get(sequence);
+            if(exchange != null && appRequest.matches(exchange.getRequest())) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Drops the stale heads of the entries for a path, removing the entries once empty.
+     */
+    private Queue<Long> dropStaleHeads(MethodIndex methodIndex, String path) {
+        return methodIndex.byPath.computeIfPresent(path, (k, sequences) -> dropStaleHeads(sequences).isEmpty() ? null : sequences);
+    }
+
+    /**
+     * Drops sequences from the head of a queue until it reaches one that is still stored.
+     * Sequences are only ever added at the tail, and once evicted are never stored again,
+     * so each is dropped at most once. Removal is serialized so a racing caller cannot
+     * poll a sequence that is still stored.
+     */
+    private Queue<Long> dropStaleHeads(Queue<Long> sequences) {
+        synchronized(sequences) {
+            Long head;
+            while((head = sequences.peek()) != null && get(head) == null) {
+                sequences.poll();
+            }
+        }
+        return sequences;
+    }
+
+    private static class MethodIndex {
+        private final Queue<Long> all = new ConcurrentLinkedQueue<>();
+        private final ConcurrentHashMap<String, Queue<Long>> byPath = new ConcurrentHashMap<>();
+
+        private void add(String path, long sequence) {
+            all.add(sequence);
+            if(path != null) {
+                byPath.compute(path, (k, sequences) -> {
+                    final Queue<Long> queue = sequences == null ? new ConcurrentLinkedQueue<>() : sequences;
+                    queue.add(sequence);
+                    return queue;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Streams;
+import com.jonnymatts.jzonbie.requests.AppRequest;
+import com.jonnymatts.jzonbie.util.CompiledPattern;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * History of exchanges stored as serialized JSON in direct {@link ByteBuffer} segments,
+ * bounded by the number of bytes stored rather than the number of exchanges.
+ * <p>
+ * Exchanges are only deserialized when the history is read or counted. Each record is
+ * prefixed with the time it was added and the request method and path, so counting and
+ * streaming skip deserializing exchanges that cannot match. Once the history is full,
+ * or the newest exchange in a segment is older than the time to live, whole segments
+ * are evicted, oldest first, as exchanges are added.
+ */
+public class OffHeapCallHistory implements CallHistory {
+
+    private static final int MAX_SEGMENT_SIZE = 1024 * 1024;
+    private static final int SEGMENTS_PER_HISTORY = 16;
+
+    private final long maxBytes;
+    private final long timeToLiveMillis;
+    private final int segmentSize;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final Deque<Segment> segments;
+    private long storedBytes;
+
+    public OffHeapCallHistory(long maxBytes, ObjectMapper objectMapper) {
+        this(maxBytes, null, objectMapper);
+    }
+
+    /**
+     * Creates a history that also drops exchanges once they are older than the given duration.
+     *
+     * @param maxBytes maximum number of bytes used to store exchanges
+     * @param timeToLive how long exchanges are kept for, or null to keep them until evicted by size
+     * @param objectMapper mapper used to (de)serialize exchanges
+     */
+    public OffHeapCallHistory(long maxBytes, Duration timeToLive, ObjectMapper objectMapper) {
+        this.maxBytes = maxBytes;
+        this.timeToLiveMillis = timeToLive == null ? Long.MAX_VALUE : timeToLive.toMillis();
+        this.segmentSize = (int)Math.max(Math.min(maxBytes / SEGMENTS_PER_HISTORY, MAX_SEGMENT_SIZE), 1);
+        this.writer = objectMapper.writer().without(INDENT_OUTPUT);
+        this.reader = objectMapper.readerFor(Exchange.class);
+        this.segments = new ArrayDeque<>();
+    }
+
+    @Override
+    public void add(Exchange exchange) {
+        final AppRequest request = exchange.getRequest();
+        final byte[] header = header(request == null ? null : request.getMethod(), request == null ? null : request.getPath());
+        final byte[] body = serialize(exchange);
+        final int recordSize = Long.BYTES + Integer.BYTES * 2 + header.length + body.length;
+
+        final long now = System.currentTimeMillis();
+
+        synchronized(segments) {
+            Segment segment = segments.peekLast();
+            if(segment == null || segment.buffer.remaining() < recordSize) {
+                segment = new Segment(ByteBuffer.allocateDirect(Math.max(segmentSize, recordSize)));
+                segments.addLast(segment);
+                storedBytes += segment.buffer.capacity();
+            }
+            segment.buffer.putLong(now).putInt(header.length).put(header).putInt(body.length).put(body);
+            segment.lastAddedAt = now;
+
+            while(segments.size() > 1 && (storedBytes > maxBytes || segments.peekFirst().lastAddedAt < expiredBefore(now))) {
+                storedBytes -= segments.removeFirst().buffer.capacity();
+            }
+        }
+    }
+
+    @Override
+    public List<Exchange> getValues() {
+        return stream(null).collect(toList());
+    }
+
+    @Override
+    public Stream<Exchange> stream(Instant since) {
+        final long notBefore = Math.max(since == null ? Long.MIN_VALUE : since.toEpochMilli(), expiredBefore(System.currentTimeMillis()));
+        return Streams.stream(records())
+                .filter(record -> record.addedAt >= notBefore)
+                .map(this::deserialize);
+    }
+
+    @Override
+    public void clear() {
+        synchronized(segments) {
+            segments.clear();
+            storedBytes = 0;
+        }
+    }
+
+    @Override
+    public int count(AppRequest appRequest) {
+        final String method = appRequest.getMethod();
+        final String path = appRequest.getPath() != null && CompiledPattern.regex(appRequest.getPath()).isLiteral() ? appRequest.getPath() : null;
+        final long notBefore = expiredBefore(System.currentTimeMillis());
+
+        return (int)Streams.stream(records())
+                .filter(record -> record.addedAt >= notBefore)
+                .filter(record -> method == null || method.equals(record.method))
+                .filter(record -> path == null || path.equals(record.path))
+                .map(this::deserialize)
+                .filter(exchange -> appRequest.matches(exchange.getRequest()))
+                .count();
+    }
+
+    private Iterator<Record> records() {
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        synchronized(segments) {
+            for(Segment segment : segments) {
+                buffers.add((ByteBuffer)segment.buffer.duplicate().flip());
+            }
+        }
+
+        final Iterator<ByteBuffer> bufferIterator = buffers.iterator();
+        return new AbstractIterator<Record>() {
+            private ByteBuffer buffer;
+
+            @Override
+            protected Record computeNext() {
+                while(buffer == null || !buffer.hasRemaining()) {
+                    if(!bufferIterator.hasNext()) return endOfData();
+                    buffer = bufferIterator.next();
+                }
+                final long addedAt = buffer.getLong();
+                final byte[] header = new byte[buffer.getInt()];
+                buffer.get(header);
+                final byte[] body = new byte[buffer.getInt()];
+                buffer.get(body);
+                return new Record(addedAt, header, body);
+            }
+        };
+    }
+
+    private byte[] serialize(Exchange exchange) {
+        try {
+            return writer.writeValueAsBytes(exchange);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Exchange deserialize(Record record) {
+        try {
+            return reader.readValue(record.body);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long expiredBefore(long now) {
+        return timeToLiveMillis == Long.MAX_VALUE ? Long.MIN_VALUE : now - timeToLiveMillis;
+    }
+
+    private static byte[] header(String method, String path) {
+        return ((method == null ? "" : method) + '\n' + (path == null ? "" : path)).getBytes(UTF_8);
+    }
+
+    private static class Segment {
+        private final ByteBuffer buffer;
+        private long lastAddedAt;
+
+        private Segment(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static class Record {
+        private final long addedAt;
+        private final String method;
+        private final String path;
+        private final byte[] body;
+
+        private Record(long addedAt, byte[] header, byte[] body) {
+            this.addedAt = addedAt;
+            final String headerString = new String(header, UTF_8);
+            final int separator = headerString.indexOf('\n');
+            this.method = headerString.substring(0, separator);
+            this.path = headerString.substring(separator + 1);
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.jonnymatts.jzonbie.history;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue for many producers and one consumer.
+ * <p>
+ * Values are stored in a pre-sized ring buffer, like {@link FixedCapacityCache}. Each
+ * slot is stamped with the sequence number it is ready for, and whether it is waiting
+ * to be filled or to be polled: producers claim the next sequence with a
+ * compare-and-set once its slot has been emptied, and stamp the slot again once the
+ * value is visible, so offering does not take a lock. Unlike the cache, a full queue
+ * refuses new values instead of overwriting the oldest.
+ * <p>
+ * Only one thread may poll at a time.
+ */
+class RingQueue<T> {
+
+    private final int capacity;
+    private final AtomicReferenceArray<T> values;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private volatile long head;
+
+    RingQueue(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.values = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.tail = new AtomicLong();
+        for(int i = 0; i < capacity; i++) {
+            sequences.set(i, empty(i));
+        }
+    }
+
+    /**
+     * Adds a value if there is space for it.
+     *
+     * @param value value to add
+     * @return true if the value was added, false if the queue is full
+     */
+    boolean offer(T value) {
+        while(true) {
+            final long sequence = tail.get();
+            final int index = index(sequence);
+            final long stamp = sequences.get(index);
+            if(stamp < empty(sequence)) return false;
+            if(stamp == empty(sequence) && tail.compareAndSet(sequence, sequence + 1)) {
+                values.set(index, value);
+                sequences.set(index, filled(sequence));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest value.
+     *
+     * @return the oldest value, or null if the queue is empty
+     */
+    T poll() {
+        final long sequence = head;
+        final int index = index(sequence);
+        if(sequences.get(index) != filled(sequence)) return null;
+        final T value = values.get(index);
+        values.set(index, null);
+        sequences.set(index, empty(sequence + capacity));
+        head = sequence + 1;
+        return value;
+    }
+
+    /**
+     * Removes every value added so far.
+     *
+     * @param drained list to add the values to, oldest first
+     * @return number of values removed
+     */
+    int drainTo(List<? super T> drained) {
+        int count = 0;
+        T value;
+        while((value = poll()) != null) {
+            drained.add(value);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether no value has been added that has not yet been polled. A value
+     * that a producer is still writing counts as added.
+     *
+     * @return true if the queue is empty
+     */
+    boolean isEmpty() {
+        return head >= tail.get();
+    }
+
+    private static long empty(long sequence) {
+        return sequence * 2;
+    }
+
+    private static long filled(long sequence) {
+        return sequence * 2 + 1;
+    }
+
+    private int index(long sequence) {
+        return (int)(sequence % capacity);
+    }
+}
@@ -0,0 +1,35 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.io.CountingOutputStream;
+
+import java.io.IOException;
+import java.util.function.ToLongFunction;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT;
+import static com.google.common.io.ByteStreams.nullOutputStream;
+
+/**
+ * Measures values by the number of bytes they take up when serialized to JSON,
+ * without buffering the serialized form.
+ */
+public class SerializedSize implements ToLongFunction<Object> {
+
+    private final ObjectWriter writer;
+
+    public SerializedSize(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer().without(INDENT_OUTPUT);
+    }
+
+    @Override
+    public long applyAsLong(Object value) {
+        final CountingOutputStream outputStream = new CountingOutputStream(nullOutputStream());
+        try {
+            writer.writeValue(outputStream, value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return outputStream.getCount();
+    }
+}
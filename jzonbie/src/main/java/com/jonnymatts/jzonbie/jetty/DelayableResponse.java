@@ -0,0 +1,66 @@
+package com.jonnymatts.jzonbie.jetty;
+
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Response that can be sent after a delay without holding the request thread.
+ * <p>
+ * While a send is delayed the response reports itself as committed, so that
+ * Pippo does not complete it when the route returns. The {@link DelayedResponseFilter}
+ * then completes the response asynchronously once the delay has passed.
+ */
+public class DelayableResponse extends HttpServletResponseWrapper {
+
+    private volatile boolean delayed;
+    private Duration delay;
+    private Runnable send;
+
+    DelayableResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Delays sending the response by the given duration.
+     *
+     * @param delay duration to wait before sending
+     * @param send sends the response
+     */
+    public void delay(Duration delay, Runnable send) {
+        this.delay = delay;
+        this.send = send;
+        this.delayed = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return delayed || super.isCommitted();
+    }
+
+    Optional<Duration> getDelay() {
+        return delayed ? Optional.of(delay) : Optional.empty();
+    }
+
+    void send() {
+        delayed = false;
+        send.run();
+    }
+
+    /**
+     * Finds the {@code DelayableResponse} wrapped by the given response, if any.
+     *
+     * @param response response
+     * @return delayable response
+     */
+    public static Optional<DelayableResponse> find(ServletResponse response) {
+        while(response instanceof ServletResponseWrapper) {
+            if(response instanceof DelayableResponse) return Optional.of((DelayableResponse) response);
+            response = ((ServletResponseWrapper) response).getResponse();
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.jonnymatts.jzonbie.jetty;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Filter that completes delayed responses asynchronously.
+ * <p>
+ * When a response is delayed with {@link DelayableResponse#delay}, the request is put
+ * into asynchronous mode and the send is scheduled, releasing the request thread
+ * for the duration of the delay.
+ */
+public class DelayedResponseFilter implements Filter {
+
+    private final ScheduledExecutorService scheduler;
+
+    public DelayedResponseFilter(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        final DelayableResponse delayableResponse = new DelayableResponse((HttpServletResponse) response);
+
+        chain.doFilter(request, delayableResponse);
+
+        final Optional<Duration> delay = delayableResponse.getDelay();
+
+        if(delay.isPresent()) {
+            final AsyncContext asyncContext = request.startAsync(request, delayableResponse);
+            asyncContext.setTimeout(0);
+            scheduler.schedule(
+                    () -> asyncContext.start(() -> {
+                        try {
+                            delayableResponse.send();
+                        } finally {
+                            asyncContext.complete();
+                        }
+                    }),
+                    delay.get().toMillis(),
+                    MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public void destroy() {}
+}
@@ -1,14 +1,41 @@
 package com.jonnymatts.jzonbie.jetty;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.eclipse.jetty.io.ManagedSelector;
+import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.FilterMapping;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import ro.pippo.jetty.JettyServer;
 
+import javax.servlet.DispatcherType;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class JzonbieJettyServer extends JettyServer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(JzonbieJettyServer.class);
+
+    private static final String DELAYED_RESPONSE_FILTER_NAME = "DelayedResponseFilter";
+    private static final int SELECTOR_START_TIMEOUT_SECONDS = 5;
+
+    private final ScheduledExecutorService delayScheduler;
     private Server server;
 
-    public JzonbieJettyServer() {}
+    public JzonbieJettyServer() {
+        this.delayScheduler = newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("jzonbie-delay-%d").setDaemon(true).build()
+        );
+    }
 
     @Override
     protected Server createServer() {
@@ -17,8 +44,68 @@ public class JzonbieJettyServer extends JettyServer {
         return server;
     }
 
+    @Override
+    protected ServletContextHandler createPippoHandler() {
+        final ServletContextHandler handler = super.createPippoHandler();
+        final ServletHandler servletHandler = handler.getServletHandler();
+
+        for(FilterHolder filterHolder : servletHandler.getFilters()) {
+            filterHolder.setAsyncSupported(true);
+        }
+
+        final FilterHolder delayedResponseFilter = new FilterHolder(new DelayedResponseFilter(delayScheduler));
+        delayedResponseFilter.setName(DELAYED_RESPONSE_FILTER_NAME);
+        delayedResponseFilter.setAsyncSupported(true);
+        servletHandler.addFilter(delayedResponseFilter);
+
+        final FilterMapping delayedResponseFilterMapping = new FilterMapping();
+        delayedResponseFilterMapping.setFilterName(DELAYED_RESPONSE_FILTER_NAME);
+        delayedResponseFilterMapping.setPathSpec("/*");
+        delayedResponseFilterMapping.setDispatcherTypes(EnumSet.of(DispatcherType.REQUEST));
+        servletHandler.prependFilterMapping(delayedResponseFilterMapping);
+
+        return handler;
+    }
+
+    /**
+     * Starts the server and waits for its selectors to start selecting.
+     * <p>
+     * Jetty only starts a selector once its thread picks up the start task, and a
+     * selector stopped before then is never told to stop, which holds up stopping
+     * the server until the thread pool times out. A selector that does not start in
+     * time is logged rather than failing the start, as the server can still serve requests.
+     */
+    @Override
+    public void start() {
+        super.start();
+
+        for(Connector connector : server.getConnectors()) {
+            if(connector instanceof ServerConnector) {
+                ((ServerConnector) connector).getSelectorManager().getBeans(ManagedSelector.class).forEach(this::awaitSelectorStart);
+            }
+        }
+    }
+
+    private void awaitSelectorStart(ManagedSelector selector) {
+        final CountDownLatch started = new CountDownLatch(1);
+        selector.submit(s -> started.countDown());
+        try {
+            if(!started.await(SELECTOR_START_TIMEOUT_SECONDS, SECONDS)) {
+                LOGGER.warn("Selector {} did not start within {} seconds, stopping the server may be delayed", selector, SELECTOR_START_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        delayScheduler.shutdownNow();
+    }
+
     @Override
     public int getPort() {
         return ((ServerConnector) server.getConnectors()[0]).getLocalPort();
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,15 @@
 package com.jonnymatts.jzonbie.junit;
 
 import com.jonnymatts.jzonbie.Jzonbie;
+import com.jonnymatts.jzonbie.JzonbieClient;
 import org.junit.jupiter.api.extension.*;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.UUID;
 
 import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
@@ -42,40 +47,111 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  *     }
  * }
  * </pre>
+ * <p>
+ * If the Jzonbie has a tenant header configured, tests can run in parallel against it.
+ * Each test is given its own tenant instead of resetting the Jzonbie, and one Jzonbie is
+ * shared by every test class configured with the same Jzonbie class. The tenant is
+ * created before the test, so even calls served only by the default priming are
+ * recorded. A {@link JzonbieClient} parameter primes, verifies and resets only the test's tenant,
+ * and a {@link TenantHeader} parameter is the header that routes the requests of the
+ * code under test to it.
+ * <pre>
+ * &#64;ExtendWith(JzonbieExtension.class)
+ * &#64;JzonbieConfiguration(TenantJzonbie.class)
+ * class ExampleTest {
+ *
+ *     &#64;Test
+ *     void testMethod(JzonbieClient jzonbie, TenantHeader tenantHeader) {
+ *         jzonbie.prime(get("/"), ok());
+ *         ...
+ *     }
+ * }
+ * </pre>
  */
-public class JzonbieExtension implements ParameterResolver, BeforeAllCallback, BeforeEachCallback, AfterAllCallback {
+public class JzonbieExtension implements ParameterResolver, BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
 
-    private static Jzonbie jzonbie;
+    private static final Namespace NAMESPACE = Namespace.create(JzonbieExtension.class);
+    private static final String JZONBIE_KEY = "jzonbie";
+    private static final String TENANT_KEY = "tenant";
 
     @Override
     public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
         final Class<?> parameterClass = parameterContext.getParameter().getType();
-        return Jzonbie.class.isAssignableFrom(parameterClass);
+        return Jzonbie.class.isAssignableFrom(parameterClass)
+                || parameterClass == JzonbieClient.class
+                || parameterClass == TenantHeader.class;
     }
 
     @Override
     public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
-        final Class<? extends Jzonbie> type = (Class<? extends Jzonbie>) parameterContext.getParameter().getType();
-        return getJzonbie(type);
+        final Class<?> parameterClass = parameterContext.getParameter().getType();
+        final Jzonbie jzonbie = getJzonbie(extensionContext);
+        final String tenant = getStore(extensionContext).get(TENANT_KEY, String.class);
+        if(parameterClass == JzonbieClient.class) {
+            return tenant == null ? jzonbie : jzonbie.forTenant(tenant);
+        }
+        if(parameterClass == TenantHeader.class) {
+            if(tenant == null) {
+                throw new ParameterResolutionException("No tenant header configured for Jzonbie");
+            }
+            return new TenantHeader(jzonbie.getTenantHeaderName().get(), tenant);
+        }
+        return getJzonbie(jzonbie, (Class<? extends Jzonbie>) parameterClass);
     }
 
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
         final Class<? extends Jzonbie> jzonbieClass = getJzonbieClass(context);
-        JzonbieExtension.jzonbie = jzonbieClass.newInstance();
+        final Store rootStore = context.getRoot().getStore(NAMESPACE);
+        final StoppableJzonbie shared = rootStore.get(jzonbieClass, StoppableJzonbie.class);
+        if(shared != null) {
+            getStore(context).put(JZONBIE_KEY, shared.jzonbie);
+            return;
+        }
+
+        final Jzonbie jzonbie = jzonbieClass.newInstance();
+        if(!jzonbie.getTenantHeaderName().isPresent()) {
+            getStore(context).put(JZONBIE_KEY, new StoppableJzonbie(jzonbie));
+            return;
+        }
+
+        final StoppableJzonbie computed = rootStore.getOrComputeIfAbsent(jzonbieClass, key -> new StoppableJzonbie(jzonbie), StoppableJzonbie.class);
+        if(computed.jzonbie != jzonbie) {
+            jzonbie.stop();
+        }
+        getStore(context).put(JZONBIE_KEY, computed.jzonbie);
     }
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
-        jzonbie.reset();
+        final Jzonbie jzonbie = getJzonbie(context);
+        if(jzonbie.getTenantHeaderName().isPresent()) {
+            final String tenant = UUID.randomUUID().toString();
+            jzonbie.createTenant(tenant);
+            getStore(context).put(TENANT_KEY, tenant);
+        } else {
+            jzonbie.reset();
+        }
     }
 
     @Override
-    public void afterAll(ExtensionContext context) throws Exception {
-        jzonbie.stop();
+    public void afterEach(ExtensionContext context) throws Exception {
+        final String tenant = getStore(context).remove(TENANT_KEY, String.class);
+        if(tenant != null) {
+            getJzonbie(context).forTenant(tenant).reset();
+        }
+    }
+
+    private Jzonbie getJzonbie(ExtensionContext context) {
+        final Object stored = getStore(context).get(JZONBIE_KEY);
+        return stored instanceof StoppableJzonbie ? ((StoppableJzonbie) stored).jzonbie : (Jzonbie) stored;
+    }
+
+    private Store getStore(ExtensionContext context) {
+        return context.getStore(NAMESPACE);
     }
 
-    private <T extends Jzonbie> T getJzonbie(Class<T> requestedJzonbieClass) {
+    private <T extends Jzonbie> T getJzonbie(Jzonbie jzonbie, Class<T> requestedJzonbieClass) {
         final Class<? extends Jzonbie> jzonbieClass = jzonbie.getClass();
         if(requestedJzonbieClass.isAssignableFrom(jzonbieClass)) {
             return requestedJzonbieClass.cast(jzonbie);
@@ -91,6 +167,24 @@ public class JzonbieExtension implements ParameterResolver, BeforeAllCallback, B
         return Jzonbie.class;
     }
 
+    /**
+     * Jzonbie that is stopped when the store holding it is closed: the test class store
+     * for a Jzonbie used by one test class, the root store for a shared Jzonbie.
+     */
+    private static class StoppableJzonbie implements CloseableResource {
+
+        private final Jzonbie jzonbie;
+
+        private StoppableJzonbie(Jzonbie jzonbie) {
+            this.jzonbie = jzonbie;
+        }
+
+        @Override
+        public void close() {
+            jzonbie.stop();
+        }
+    }
+
     @Target(TYPE)
     @Retention(RUNTIME)
     public @interface JzonbieConfiguration {
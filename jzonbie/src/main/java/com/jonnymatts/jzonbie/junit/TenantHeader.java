@@ -0,0 +1,51 @@
+package com.jonnymatts.jzonbie.junit;
+
+import java.util.Objects;
+
+/**
+ * Header that routes a request to the tenant of the current test, provided by
+ * {@link JzonbieExtension} when the Jzonbie has a tenant header configured.
+ * <p>
+ * Requests sent by the code under test must carry this header to be matched
+ * against the test's priming and recorded in its call history.
+ */
+public class TenantHeader {
+
+    private final String name;
+    private final String value;
+
+    public TenantHeader(String name, String value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TenantHeader that = (TenantHeader) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, value);
+    }
+
+    @Override
+    public String toString() {
+        return "TenantHeader{" +
+                "name='" + name + '\'' +
+                ", value='" + value + '\'' +
+                '}';
+    }
+}
@@ -1,15 +1,15 @@
 package com.jonnymatts.jzonbie.pippo;
 
 import com.jonnymatts.jzonbie.Request;
-import ro.pippo.core.util.IoUtils;
+import ro.pippo.core.FileItem;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import static java.util.Collections.list;
-import static java.util.Optional.of;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
@@ -25,7 +25,7 @@ public class PippoRequest implements Request {
     private final Map<String, String> headers;
     private final String body;
     private final Map<String, List<String>> queryMap;
-    private final String primingFileContent;
+    private final FileItem primingFile;
 
     public PippoRequest(ro.pippo.core.Request request) {
         protocol = request.getScheme();
@@ -36,7 +36,7 @@ public class PippoRequest implements Request {
         headers = createHeaders(request);
         body = request.getBody();
         queryMap = createQueryMap(request);
-        primingFileContent = getPrimingFileContentFromRequest(request);
+        primingFile = getPrimingFileFromRequest(request);
     }
 
     @Override
@@ -65,8 +65,13 @@ public class PippoRequest implements Request {
     }
 
     @Override
-    public String getPrimingFileContent() {
-        return primingFileContent;
+    public InputStream getPrimingFile() {
+        if(primingFile == null) return null;
+        try {
+            return primingFile.getInputStream();
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     public String getProtocol() {
@@ -103,17 +108,9 @@ public class PippoRequest implements Request {
                 );
     }
 
-    private String getPrimingFileContentFromRequest(ro.pippo.core.Request request) {
+    private FileItem getPrimingFileFromRequest(ro.pippo.core.Request request) {
         final String contentType = request.getContentType();
         if(contentType == null || !contentType.startsWith(FILE_CONTENT_TYPE) || request.getFiles().isEmpty()) return null;
-        return of(request.getFile("priming"))
-                .map(fileItem -> {
-                    try {
-                        return IoUtils.toString(fileItem.getInputStream());
-                    } catch (IOException e) {
-                        return null;
-                    }
-                })
-                .orElse(null);
+        return request.getFile("priming");
     }
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.jonnymatts.jzonbie.pippo;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
 import com.jonnymatts.jzonbie.Body;
 import com.jonnymatts.jzonbie.Response;
 import com.jonnymatts.jzonbie.body.LiteralBodyContent;
+import com.jonnymatts.jzonbie.jetty.DelayableResponse;
 import com.jonnymatts.jzonbie.requests.PrimingNotFoundException;
+import com.jonnymatts.jzonbie.requests.StreamingZombieResponse;
 import com.jonnymatts.jzonbie.responses.CurrentPrimingFileResponseFactory.FileResponse;
 import com.jonnymatts.jzonbie.responses.ErrorResponse;
 import com.jonnymatts.jzonbie.responses.PrimingNotFoundErrorResponse;
@@ -13,16 +20,28 @@ import com.jonnymatts.jzonbie.templating.ResponseTransformer;
 import com.jonnymatts.jzonbie.templating.TransformationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ro.pippo.core.gzip.GZipResponseWrapper;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
+import static com.fasterxml.jackson.databind.SerializationFeature.FLUSH_AFTER_WRITE_VALUE;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.newSetFromMap;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
 import static ro.pippo.core.HttpConstants.ContentType.APPLICATION_JSON;
+import static ro.pippo.core.HttpConstants.ContentType.TEXT_HTML;
 
 public class PippoResponder {
 
@@ -30,10 +49,16 @@ public class PippoResponder {
 
     private final ResponseTransformer responseTransformer;
     private final ObjectMapper objectMapper;
+    private final ObjectWriter streamWriter;
+    private final Set<Body<?>> bodiesServedOnce;
+    private final Cache<Body<?>, SerializedBody> serializedBodies;
 
     public PippoResponder(ResponseTransformer responseTransformer, ObjectMapper objectMapper) {
         this.responseTransformer = responseTransformer;
         this.objectMapper = objectMapper;
+        this.streamWriter = objectMapper.writer().without(FLUSH_AFTER_WRITE_VALUE);
+        this.bodiesServedOnce = newSetFromMap(new MapMaker().weakKeys().makeMap());
+        this.serializedBodies = CacheBuilder.newBuilder().weakKeys().build();
     }
 
     public void send(ro.pippo.core.Response pippoResponse, PippoRequest pippoRequest, Supplier<Response<?>> responseSupplier) {
@@ -43,45 +68,106 @@ public class PippoResponder {
                 final FileResponse fileResponse = (FileResponse) response;
                 pippoResponse.contentType(APPLICATION_JSON);
                 pippoResponse.file(fileResponse.getFileName(), new ByteArrayInputStream(fileResponse.getContents().getBytes()));
+            } else if(response instanceof StreamingZombieResponse) {
+                sendStream(pippoResponse, (StreamingZombieResponse) response);
             } else if(response.isTemplated()) {
                 final TransformationContext transformationContext = new TransformationContext(pippoRequest);
                 final Map<String, String> transformedHeaders = responseTransformer.transformHeaders(transformationContext, response.getHeaders());
-                primeResponse(pippoResponse, response.getStatusCode(), transformedHeaders);
-                sleepIfNecessary(response);
                 final String bodyString = getBodyString(response.getBody());
                 final String transformedBodyString = responseTransformer.transformBody(transformationContext, bodyString);
-                send(pippoResponse, transformedBodyString);
+                sendAfterDelay(pippoResponse, response, transformedHeaders, SerializedBody.of(transformedBodyString));
             } else {
-                primeResponse(pippoResponse, response.getStatusCode(), response.getHeaders());
-                sleepIfNecessary(response);
-                final String bodyString = getBodyString(response.getBody());
-                send(pippoResponse, bodyString);
+                sendAfterDelay(pippoResponse, response, response.getHeaders(), getSerializedBody(response.getBody()));
             }
         } catch (PrimingNotFoundException e) {
             LOGGER.error("Priming not found for request {}", e.getRequest());
             sendErrorResponse(pippoResponse, SC_NOT_FOUND, new PrimingNotFoundErrorResponse(e.getRequest()));
         } catch (Exception e) {
-            LOGGER.error("Exception occurred: " + e.getClass().getSimpleName(), e);
-            sendErrorResponse(pippoResponse, SC_INTERNAL_SERVER_ERROR, new ErrorResponse(format("Error occurred: %s - %s", e.getClass().getName(), e.getMessage())));
+            sendExceptionResponse(pippoResponse, e);
         }
     }
 
-    private void send(ro.pippo.core.Response response, String bodyString) {
-        if(bodyString ==  null) {
-            response.commit();
+    private void sendAfterDelay(ro.pippo.core.Response pippoResponse, Response<?> response, Map<String, String> headers, SerializedBody body) {
+        final Runnable send = () -> {
+            primeResponse(pippoResponse, response.getStatusCode(), headers);
+            send(pippoResponse, body);
+        };
+
+        final Optional<Duration> delay = response.getDelay().filter(d -> !d.isZero() && !d.isNegative());
+
+        if(!delay.isPresent()) {
+            send.run();
+            return;
+        }
+
+        final Optional<DelayableResponse> delayableResponse = DelayableResponse.find(pippoResponse.getHttpServletResponse());
+
+        if(delayableResponse.isPresent()) {
+            delayableResponse.get().delay(delay.get(), () -> {
+                try {
+                    send.run();
+                } catch (Exception e) {
+                    sendExceptionResponse(pippoResponse, e);
+                }
+            });
         } else {
-            response.send(bodyString);
+            sleep(delay.get());
+            send.run();
         }
     }
 
-    private void sleepIfNecessary(Response<?> response) {
-        response.getDelay().ifPresent(d -> {
-            try {
-                Thread.sleep(d.toMillis());
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+    private void sendStream(ro.pippo.core.Response pippoResponse, StreamingZombieResponse response) {
+        primeResponse(pippoResponse, response.getStatusCode(), response.getHeaders());
+
+        try(JsonGenerator generator = objectMapper.getFactory().createGenerator(pippoResponse.getOutputStream())) {
+            generator.writeStartArray();
+            final Iterator<?> values = response.getValues().iterator();
+            while(values.hasNext()) {
+                streamWriter.writeValue(generator, values.next());
             }
-        });
+            generator.writeEndArray();
+        } catch (IOException e) {
+            LOGGER.error("Exception occurred while streaming response", e);
+        }
+    }
+
+    private void send(ro.pippo.core.Response response, SerializedBody body) {
+        if(body ==  null) {
+            response.commit();
+        } else if(body.bytes != null && canSendBytes(response)) {
+            sendBytes(response, body.bytes);
+        } else {
+            response.send(body.string);
+        }
+    }
+
+    /**
+     * Pippo's gzip response wrapper controls the output stream and Content-Length, so encoded
+     * bytes are only written directly to uncompressed responses in the encoding they were cached in.
+     */
+    private boolean canSendBytes(ro.pippo.core.Response response) {
+        return !(response.getHttpServletResponse() instanceof GZipResponseWrapper)
+                && UTF_8.name().equalsIgnoreCase(response.getCharacterEncoding());
+    }
+
+    private void sendBytes(ro.pippo.core.Response response, byte[] bytes) {
+        if(response.getContentType() == null) {
+            response.contentType(TEXT_HTML);
+        }
+        response.contentLength(bytes.length);
+        try(OutputStream outputStream = response.getOutputStream()) {
+            outputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private String getBodyString(Body<?> body) throws JsonProcessingException {
@@ -90,13 +176,36 @@ public class PippoResponder {
         return objectMapper.writeValueAsString(body.getContent());
     }
 
-    private void primeResponse(ro.pippo.core.Response response, int statusCode, Map<String, String> headers) throws IOException {
+    /**
+     * Serializes a body, caching it with its encoded bytes from the second time the same body is served.
+     * Bodies of responses that are only served once, like most non-default primings, are never cached.
+     */
+    private SerializedBody getSerializedBody(Body<?> body) throws JsonProcessingException {
+        if(body == null) return null;
+        final SerializedBody cached = serializedBodies.getIfPresent(body);
+        if(cached != null) return cached;
+        if(bodiesServedOnce.add(body)) return SerializedBody.of(getBodyString(body));
+        try {
+            return serializedBodies.get(body, () -> SerializedBody.encoded(getBodyString(body)));
+        } catch (ExecutionException e) {
+            throw (JsonProcessingException) e.getCause();
+        } finally {
+            bodiesServedOnce.remove(body);
+        }
+    }
+
+    private void primeResponse(ro.pippo.core.Response response, int statusCode, Map<String, String> headers) {
         response.status(statusCode);
         if(headers != null) {
             headers.forEach(response::header);
         }
     }
 
+    private void sendExceptionResponse(ro.pippo.core.Response pippoResponse, Exception e) {
+        LOGGER.error("Exception occurred: " + e.getClass().getSimpleName(), e);
+        sendErrorResponse(pippoResponse, SC_INTERNAL_SERVER_ERROR, new ErrorResponse(format("Error occurred: %s - %s", e.getClass().getName(), e.getMessage())));
+    }
+
     private void sendErrorResponse(ro.pippo.core.Response pippoResponse, int statusCode, ErrorResponse errorResponse) {
         pippoResponse.status(statusCode);
 
@@ -106,4 +215,22 @@ public class PippoResponder {
             pippoResponse.send(errorResponse.getMessage());
         }
     }
+
+    private static class SerializedBody {
+        private final String string;
+        private final byte[] bytes;
+
+        private SerializedBody(String string, byte[] bytes) {
+            this.string = string;
+            this.bytes = bytes;
+        }
+
+        private static SerializedBody of(String string) {
+            return string == null ? null : new SerializedBody(string, null);
+        }
+
+        private static SerializedBody encoded(String string) {
+            return new SerializedBody(string, string.getBytes(UTF_8));
+        }
+    }
 }
\ No newline at end of file
@@ -3,12 +3,11 @@ package com.jonnymatts.jzonbie.priming;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.jonnymatts.jzonbie.Request;
 import com.jonnymatts.jzonbie.body.BodyContent;
+import com.jonnymatts.jzonbie.jackson.DeserializationException;
 import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.jonnymatts.jzonbie.body.ArrayBodyContent.arrayBody;
@@ -16,6 +15,13 @@ import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
 import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
 import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
 
+/**
+ * Creates {@link AppRequest}s from incoming requests.
+ * <p>
+ * The request body is only parsed when it is first accessed, so requests that are
+ * never matched against a body priming do not pay for parsing it. Bodies that look
+ * like JSON but cannot be parsed are treated as literal bodies.
+ */
 public class AppRequestFactory {
 
     private static final TypeReference<List<Object>> LIST_TYPE_REFERENCE = new TypeReference<List<Object>>() {};
@@ -26,24 +32,24 @@ public class AppRequestFactory {
     }
 
     public AppRequest create(Request request) {
+        final AppRequest appRequest = new AppRequest(request.getMethod(), request.getPath());
+        appRequest.setQueryParams(request.getQueryParams());
+        appRequest.setHeaders(request.getHeaders());
 
         final String bodyString = request.getBody();
-        final BodyContent bodyContent = getBodyContent(bodyString);
-
-        final Map<String, Object> primedRequestMap = new HashMap<>();
-        primedRequestMap.put("path", request.getPath());
-        primedRequestMap.put("method", request.getMethod());
-        primedRequestMap.put("queryParams", request.getQueryParams());
-        primedRequestMap.put("headers", request.getHeaders());
-
-        final AppRequest deserializedAppRequest = deserializer.deserialize(primedRequestMap, AppRequest.class);
-        return deserializedAppRequest.withBody(bodyContent);
+        if(!isNullOrEmpty(bodyString)) {
+            appRequest.withLazyBody(() -> getBodyContent(bodyString));
+        }
+        return appRequest;
     }
 
-    private BodyContent getBodyContent(String bodyString) {
-        if(isNullOrEmpty(bodyString)) return null;
-        if(isJsonMap(bodyString)) return objectBody(deserializer.deserialize(bodyString));
-        if(isJsonArray(bodyString)) return arrayBody(deserializer.deserialize(bodyString, LIST_TYPE_REFERENCE));
+    private BodyContent<?> getBodyContent(String bodyString) {
+        try {
+            if(isJsonMap(bodyString)) return objectBody(deserializer.deserialize(bodyString));
+            if(isJsonArray(bodyString)) return arrayBody(deserializer.deserialize(bodyString, LIST_TYPE_REFERENCE));
+        } catch (DeserializationException e) {
+            return literalBody(bodyString);
+        }
         if(isJsonString(bodyString)) return stringBody(bodyString.substring(1, bodyString.length()-1));
         return literalBody(bodyString);
     }
@@ -10,131 +10,348 @@ import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultingQueue;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
+/**
+ * Holds the current priming and finds the response for incoming requests.
+ * <p>
+ * Priming is held in two layers. The default priming given on construction is built
+ * once into a base layer that is never modified. Everything primed afterwards goes into
+ * an overlay layer, and resetting simply replaces the overlay with an empty one. The first
+ * time a request mapped in the base layer is looked up or primed after a reset, its
+ * response queues are copied into the overlay, so responses polled from them do not
+ * consume the default priming.
+ * <p>
+ * Lookups run concurrently under a shared read lock, polling responses from the
+ * thread-safe {@link DefaultingQueue}s. Only priming, reset and the removal of
+ * exhausted primings take the exclusive write lock.
+ * <p>
+ * Primings for the same request are matched sequentially unless a parallel
+ * matching threshold is given, in which case primings for requests with at
+ * least that many header variations are matched in parallel.
+ * <p>
+ * A request is first looked up by its exact method, path, body and query
+ * parameters, then through the index. Each layer counts its primed requests with
+ * a body, so the exact lookup of a request with a body, which parses the body to
+ * hash it, is skipped while no primed request has a body to match against.
+ */
 public class PrimingContext {
-    private final List<Priming> priming;
-    private Map<HeaderlessAppRequest, Map<AppRequest, DefaultingQueue>> primedMappings;
+    private final Layer base;
+    private final int parallelMatchingThreshold;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private Layer overlay;
+
+    public PrimingContext(List<Priming> priming, int parallelMatchingThreshold) {
+        this(createBase(priming), parallelMatchingThreshold);
+    }
+
+    private PrimingContext(Layer base, int parallelMatchingThreshold) {
+        this.parallelMatchingThreshold = parallelMatchingThreshold;
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.base = base;
+        this.overlay = new Layer(new ConcurrentHashMap<>());
+    }
 
     public PrimingContext(List<Priming> priming) {
-        this.priming = priming;
-        this.primedMappings = new HashMap<>();
-        addDefaultPriming();
+        this(priming, 0);
     }
 
     public PrimingContext() {
         this(emptyList());
     }
 
-    synchronized public List<PrimedMapping> getCurrentPriming() {
-        return primedMappings.entrySet().stream().map(e -> e.getValue().entrySet()).flatMap(Collection::stream)
-                .map(e -> new PrimedMapping(e.getKey(), e.getValue()))
-                .collect(Collectors.toList());
+    /**
+     * Creates a new priming context with the same default priming as this one and none
+     * of its other priming. The default priming is shared rather than copied.
+     *
+     * @return new priming context with only the default priming
+     */
+    public PrimingContext withDefaultPrimingOnly() {
+        return new PrimingContext(base, parallelMatchingThreshold);
+    }
+
+    public List<PrimedMapping> getCurrentPriming() {
+        readLock.lock();
+        try {
+            final List<PrimedMapping> currentPriming = new ArrayList<>();
+            base.mappings.forEach((key, mappings) -> {
+                if(!overlay.mappings.containsKey(key)) {
+                    mappings.forEach((appRequest, queue) -> currentPriming.add(new PrimedMapping(appRequest, copy(queue))));
+                }
+            });
+            overlay.mappings.values().forEach(mappings ->
+                    mappings.forEach((appRequest, queue) -> currentPriming.add(new PrimedMapping(appRequest, queue)))
+            );
+            return currentPriming;
+        } finally {
+            readLock.unlock();
+        }
     }
 
     public PrimingContext add(ZombiePriming zombiePriming) {
         return add(zombiePriming.getRequest(), zombiePriming.getResponse());
     }
 
-    synchronized public PrimingContext add(AppRequest appRequest, AppResponse appResponse) {
-        final DefaultingQueue responseQueue = getAppResponseQueueForAdd(appRequest);
+    public PrimingContext add(AppRequest appRequest, AppResponse appResponse) {
+        writeLock.lock();
+        try {
+            final DefaultingQueue responseQueue = getAppResponseQueueForAdd(appRequest);
+
+            responseQueue.add(appResponse);
+        } finally {
+            writeLock.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds all of the given primings while holding the write lock once.
+     *
+     * @param zombiePrimings primings to add
+     * @return this priming context
+     */
+    public PrimingContext addAll(Collection<ZombiePriming> zombiePrimings) {
+        writeLock.lock();
+        try {
+            for(ZombiePriming zombiePriming : zombiePrimings) {
+                getAppResponseQueueForAdd(zombiePriming.getRequest()).add(zombiePriming.getResponse());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        return this;
+    }
 
-        responseQueue.add(appResponse);
+    /**
+     * Adds the primed and default responses of all of the given mappings while holding
+     * the write lock once.
+     *
+     * @param primedMappings mappings to add
+     * @return this priming context
+     */
+    public PrimingContext addPrimedMappings(Collection<PrimedMapping> primedMappings) {
+        writeLock.lock();
+        try {
+            for(PrimedMapping primedMapping : primedMappings) {
+                final DefaultingQueue responseQueue = getAppResponseQueueForAdd(primedMapping.getRequest());
+                final DefaultingQueue responses = primedMapping.getResponses();
+                responses.getPrimed().forEach(responseQueue::add);
+                responses.getDefault().ifPresent(responseQueue::setDefault);
+            }
+        } finally {
+            writeLock.unlock();
+        }
 
         return this;
     }
 
-    synchronized public PrimingContext addDefault(AppRequest appRequest, DefaultAppResponse defaultAppResponse) {
-        final DefaultingQueue responseQueue = getAppResponseQueueForAdd(appRequest);
+    public PrimingContext addDefault(AppRequest appRequest, DefaultAppResponse defaultAppResponse) {
+        writeLock.lock();
+        try {
+            final DefaultingQueue responseQueue = getAppResponseQueueForAdd(appRequest);
 
-        responseQueue.setDefault(defaultAppResponse);
+            responseQueue.setDefault(defaultAppResponse);
+        } finally {
+            writeLock.unlock();
+        }
 
         return this;
     }
 
     private DefaultingQueue getAppResponseQueueForAdd(AppRequest appRequest) {
         final HeaderlessAppRequest headerlessAppRequest = new HeaderlessAppRequest(appRequest);
-        Map<AppRequest, DefaultingQueue> mappingsForHeaderlessRequest = primedMappings
-                .computeIfAbsent(headerlessAppRequest, k -> new HashMap<>());
+        Map<AppRequest, DefaultingQueue> mappingsForHeaderlessRequest = getMappings(headerlessAppRequest);
 
-        DefaultingQueue responseQueue = mappingsForHeaderlessRequest.get(appRequest);
-
-        if(responseQueue == null) {
-            responseQueue = new DefaultingQueue();
-            mappingsForHeaderlessRequest.put(appRequest, responseQueue);
+        if(mappingsForHeaderlessRequest == null) {
+            mappingsForHeaderlessRequest = new HashMap<>();
+            overlay.mappings.put(headerlessAppRequest, mappingsForHeaderlessRequest);
+            overlay.index.add(headerlessAppRequest.method, headerlessAppRequest.path, headerlessAppRequest);
+            if(headerlessAppRequest.body != null) overlay.keysWithBody++;
         }
 
-        return responseQueue;
+        return mappingsForHeaderlessRequest.computeIfAbsent(appRequest, k -> new DefaultingQueue());
     }
 
-    synchronized public Optional<AppResponse> getResponse(AppRequest appRequest) {
-        final HeaderlessAppRequest headerlessAppRequest = new HeaderlessAppRequest(appRequest);
-        final Optional<MapAppRequestAndQueue> mapAppRequestAndQueue = findMapAndQueue(appRequest);
+    /**
+     * Returns the overlay mappings for a request, first copying them from the base layer
+     * if the request is only mapped there. Safe to call under the read lock.
+     */
+    private Map<AppRequest, DefaultingQueue> getMappings(HeaderlessAppRequest key) {
+        final Map<AppRequest, DefaultingQueue> mappings = overlay.mappings.get(key);
+        if(mappings != null) return mappings;
+
+        final Map<AppRequest, DefaultingQueue> baseMappings = base.mappings.get(key);
+        if(baseMappings == null) return null;
+
+        return overlay.mappings.computeIfAbsent(key, k -> {
+            final Map<AppRequest, DefaultingQueue> copied = new HashMap<>();
+            baseMappings.forEach((appRequest, queue) -> copied.put(appRequest, copy(queue)));
+            return copied;
+        });
+    }
 
-        if (!mapAppRequestAndQueue.isPresent())
-            return empty();
+    public Optional<AppResponse> getResponse(AppRequest appRequest) {
+        final Optional<PolledResponse> polledResponse;
 
-        return mapAppRequestAndQueue.map(m -> {
-            final DefaultingQueue responseQueue = m.getQueue();
-            final Map<AppRequest, DefaultingQueue> mapping = m.getMap();
+        readLock.lock();
+        try {
+            polledResponse = pollMatchingQueue(appRequest);
+        } finally {
+            readLock.unlock();
+        }
 
-            final AppResponse appResponse = responseQueue.poll();
+        polledResponse.ifPresent(this::removeIfExhausted);
 
-            if(responseQueue.hasSize() == 0 && !responseQueue.getDefault().isPresent())
-                mapping.remove(m.getAppRequest());
+        return polledResponse.map(PolledResponse::getResponse);
+    }
 
-            if(mapping.isEmpty())
-                primedMappings.remove(headerlessAppRequest);
-            return appResponse;
-        });
+    private Optional<PolledResponse> pollMatchingQueue(AppRequest appRequest) {
+        HeaderlessAppRequest headerlessAppRequest = null;
+        if(!appRequest.hasBody() || base.keysWithBody > 0 || overlay.keysWithBody > 0) {
+            headerlessAppRequest = new HeaderlessAppRequest(appRequest);
+            final Map<AppRequest, DefaultingQueue> map = getMappings(headerlessAppRequest);
+            if(map != null) {
+                final Optional<PolledResponse> exactMatch = pollMatchingQueueFromMap(headerlessAppRequest, map, appRequest);
+                if(exactMatch.isPresent()) return exactMatch;
+            }
+        }
+        final List<HeaderlessAppRequest> candidates = PrimingIndex.candidates(appRequest.getMethod(), appRequest.getPath(), asList(base.index, overlay.index));
+        for (HeaderlessAppRequest candidate : candidates) {
+            if(candidate.equals(headerlessAppRequest)) continue;
+            final Optional<PolledResponse> match = pollMatchingQueueFromMap(candidate, getMappings(candidate), appRequest);
+            if(match.isPresent()) return match;
+        }
+        return empty();
     }
 
-    private Optional<MapAppRequestAndQueue> findMapAndQueue(AppRequest appRequest) {
-        final HeaderlessAppRequest headerlessAppRequest = new HeaderlessAppRequest(appRequest);
-        Map<AppRequest, DefaultingQueue> map = primedMappings.get(headerlessAppRequest);
-        if(map == null) {
-            for (Map<AppRequest, DefaultingQueue> e : primedMappings.values()) {
-                final Optional<Map.Entry<AppRequest, DefaultingQueue>> entryOpt = findResponseQueueFromMapForRequest(e, appRequest);
-                if(entryOpt.isPresent()) {
-                    final Map.Entry<AppRequest, DefaultingQueue> entry = entryOpt.get();
-                    return of(new MapAppRequestAndQueue(e, entry.getKey(), entry.getValue()));
-                }
+    private Optional<PolledResponse> pollMatchingQueueFromMap(HeaderlessAppRequest key, Map<AppRequest, DefaultingQueue> map, AppRequest appRequest) {
+        if(shouldMatchInParallel(map)) {
+            final List<Map.Entry<AppRequest, DefaultingQueue>> matching = map.entrySet().parallelStream()
+                    .filter(e -> e.getKey().matches(appRequest))
+                    .collect(Collectors.toList());
+            for (Map.Entry<AppRequest, DefaultingQueue> priming : matching) {
+                final Optional<PolledResponse> polled = poll(key, priming);
+                if(polled.isPresent()) return polled;
             }
         } else {
-            return findResponseQueueFromMapForRequest(map, appRequest).map(q -> new MapAppRequestAndQueue(map, q.getKey(), q.getValue()));
+            for (Map.Entry<AppRequest, DefaultingQueue> priming : map.entrySet()) {
+                if(!priming.getKey().matches(appRequest)) continue;
+                final Optional<PolledResponse> polled = poll(key, priming);
+                if(polled.isPresent()) return polled;
+            }
         }
         return empty();
     }
 
-    private void addDefaultPriming() {
-        for (Priming priming : priming) {
-            if(priming instanceof StandardPriming) {
-                final StandardPriming defaultPriming = (StandardPriming) priming;
-                add(defaultPriming.getRequest(), defaultPriming.getResponse());
+    private Optional<PolledResponse> poll(HeaderlessAppRequest key, Map.Entry<AppRequest, DefaultingQueue> priming) {
+        final AppResponse appResponse = priming.getValue().poll();
+        return appResponse == null ? empty() : of(new PolledResponse(key, priming.getKey(), priming.getValue(), appResponse));
+    }
+
+    private boolean shouldMatchInParallel(Map<AppRequest, DefaultingQueue> map) {
+        return parallelMatchingThreshold > 0 && map.size() >= parallelMatchingThreshold;
+    }
+
+    private void removeIfExhausted(PolledResponse polledResponse) {
+        final DefaultingQueue responseQueue = polledResponse.getQueue();
+        if(!isExhausted(responseQueue)) return;
+
+        writeLock.lock();
+        try {
+            final Map<AppRequest, DefaultingQueue> mapping = overlay.mappings.get(polledResponse.getKey());
+
+            if(mapping == null || mapping.get(polledResponse.getAppRequest()) != responseQueue || !isExhausted(responseQueue))
+                return;
+
+            mapping.remove(polledResponse.getAppRequest());
+
+            // An empty mapping for a request in the base layer is kept, so it is not copied from the base layer again
+            if(mapping.isEmpty() && !base.mappings.containsKey(polledResponse.getKey())) {
+                overlay.mappings.remove(polledResponse.getKey());
+                overlay.index.remove(polledResponse.getKey().method, polledResponse.getKey().path, polledResponse.getKey());
+                if(polledResponse.getKey().body != null) overlay.keysWithBody--;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean isExhausted(DefaultingQueue responseQueue) {
+        return !responseQueue.hasPrimed() && !responseQueue.getDefault().isPresent();
+    }
+
+    private static Layer createBase(List<Priming> priming) {
+        final Layer base = new Layer(new HashMap<>());
+        for (Priming defaultPriming : priming) {
+            if(defaultPriming instanceof StandardPriming) {
+                final StandardPriming standardPriming = (StandardPriming) defaultPriming;
+                getAppResponseQueue(base, standardPriming.getRequest()).add(standardPriming.getResponse());
             } else {
-                final DefaultResponsePriming defaultPriming = (DefaultResponsePriming) priming;
-                addDefault(defaultPriming.getRequest(), defaultPriming.getResponse());
+                final DefaultResponsePriming defaultResponsePriming = (DefaultResponsePriming) defaultPriming;
+                getAppResponseQueue(base, defaultResponsePriming.getRequest()).setDefault(defaultResponsePriming.getResponse());
             }
         }
+        return base;
+    }
+
+    private static DefaultingQueue getAppResponseQueue(Layer base, AppRequest appRequest) {
+        return base.mappings
+                .computeIfAbsent(new HeaderlessAppRequest(appRequest), k -> {
+                    base.index.add(k.method, k.path, k);
+                    if(k.body != null) base.keysWithBody++;
+                    return new HashMap<>();
+                })
+                .computeIfAbsent(appRequest, k -> new DefaultingQueue());
+    }
+
+    private static DefaultingQueue copy(DefaultingQueue queue) {
+        final DefaultingQueue copy = new DefaultingQueue();
+        copy.add(queue.getPrimed());
+        queue.getDefault().ifPresent(copy::setDefault);
+        return copy;
     }
 
-    private static class MapAppRequestAndQueue {
-        private final Map<AppRequest, DefaultingQueue> map;
+    private static class Layer {
+        private final Map<HeaderlessAppRequest, Map<AppRequest, DefaultingQueue>> mappings;
+        private final PrimingIndex<HeaderlessAppRequest> index;
+        // Only changed under the write lock, or before the layer is shared
+        private int keysWithBody;
+
+        private Layer(Map<HeaderlessAppRequest, Map<AppRequest, DefaultingQueue>> mappings) {
+            this.mappings = mappings;
+            this.index = new PrimingIndex<>();
+        }
+    }
+
+    private static class PolledResponse {
+        private final HeaderlessAppRequest key;
         private final AppRequest appRequest;
         private final DefaultingQueue queue;
+        private final AppResponse response;
 
-        public MapAppRequestAndQueue(Map<AppRequest, DefaultingQueue> map, AppRequest appRequest, DefaultingQueue queue) {
-            this.map = map;
+        public PolledResponse(HeaderlessAppRequest key, AppRequest appRequest, DefaultingQueue queue, AppResponse response) {
+            this.key = key;
             this.appRequest = appRequest;
             this.queue = queue;
+            this.response = response;
         }
 
-        public Map<AppRequest, DefaultingQueue> getMap() {
-            return map;
+        public HeaderlessAppRequest getKey() {
+            return key;
         }
 
         public AppRequest getAppRequest() {
@@ -144,17 +361,24 @@ public class PrimingContext {
         public DefaultingQueue getQueue() {
             return queue;
         }
-    }
 
-    private Optional<Map.Entry<AppRequest, DefaultingQueue>> findResponseQueueFromMapForRequest(Map<AppRequest, DefaultingQueue> map, AppRequest appRequest) {
-        return map.entrySet().parallelStream()
-                .filter(priming -> priming.getKey().matches(appRequest))
-                .findFirst();
+        public AppResponse getResponse() {
+            return response;
+        }
     }
 
-    synchronized public void reset() {
-        primedMappings.clear();
-        addDefaultPriming();
+    /**
+     * Removes all priming added since construction, restoring the default priming.
+     * This only replaces the overlay layer, so it takes constant time however much
+     * default priming there is.
+     */
+    public void reset() {
+        writeLock.lock();
+        try {
+            overlay = new Layer(new ConcurrentHashMap<>());
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     private static class HeaderlessAppRequest {
@@ -162,12 +386,14 @@ public class PrimingContext {
         private final String method;
         private final Body<?> body;
         private final Map<String, List<String>> queryParams;
+        private final int hashCode;
 
         private HeaderlessAppRequest(AppRequest appRequest) {
             this.path = appRequest.getPath();
             this.method = appRequest.getMethod();
             this.body = appRequest.getBody();
             this.queryParams = appRequest.getQueryParams();
+            this.hashCode = appRequest.headerlessHashCode();
         }
 
         @Override
@@ -177,20 +403,17 @@ public class PrimingContext {
 
             HeaderlessAppRequest that = (HeaderlessAppRequest) o;
 
+            if(hashCode != that.hashCode) return false;
             if(path != null ? !path.equals(that.path) : that.path != null) return false;
             if(method != null ? !method.equals(that.method) : that.method != null) return false;
-            if(body != null ? !body.getContent().equals(that.body.getContent()) : that.body != null) return false;
+            if(body != null ? that.body == null || !body.getContent().equals(that.body.getContent()) : that.body != null) return false;
             return queryParams != null ? queryParams.equals(that.queryParams) : that.queryParams == null;
 
         }
 
         @Override
         public int hashCode() {
-            int result = path != null ? path.hashCode() : 0;
-            result = 31 * result + (method != null ? method.hashCode() : 0);
-            result = 31 * result + (body != null ? body.getContent().hashCode() : 0);
-            result = 31 * result + (queryParams != null ? queryParams.hashCode() : 0);
-            return result;
+            return hashCode;
         }
     }
 }
\ No newline at end of file
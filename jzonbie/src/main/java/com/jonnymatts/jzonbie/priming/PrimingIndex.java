@@ -0,0 +1,155 @@
+package com.jonnymatts.jzonbie.priming;
+
+import java.util.*;
+
+/**
+ * Index of primed requests, partitioned by HTTP method and literal path prefix.
+ * <p>
+ * Each method has a trie over path segments. A path made entirely of literal segments
+ * is stored at the node for its final segment. A path containing a regex is stored at the
+ * node for its longest literal prefix, where it acts as a wildcard for every path below it.
+ * Looking up a path therefore only returns the values that could possibly match it, most
+ * specific first. Candidates must still be checked with {@code AppRequest#matches}.
+ *
+ * @param <T> type of the indexed values
+ */
+class PrimingIndex<T> {
+
+    private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String QUANTIFIER_CHARACTERS = "?*+{";
+
+    private final Map<String, Node<T>> roots;
+
+    PrimingIndex() {
+        this.roots = new HashMap<>();
+    }
+
+    void add(String method, String path, T value) {
+        final Position position = positionOf(path);
+        Node<T> node = roots.computeIfAbsent(method, k -> new Node<>());
+        for(int i = 0; i < position.depth; i++) {
+            node = node.children.computeIfAbsent(position.segments[i], k -> new Node<>());
+        }
+        (position.wildcard ? node.wildcard : node.exact).add(value);
+    }
+
+    void remove(String method, String path, T value) {
+        final Position position = positionOf(path);
+        final Node<T> root = roots.get(method);
+        if(root == null) return;
+
+        final Deque<Node<T>> visited = new ArrayDeque<>();
+        Node<T> node = root;
+        for(int i = 0; i < position.depth; i++) {
+            visited.push(node);
+            node = node.children.get(position.segments[i]);
+            if(node == null) return;
+        }
+        (position.wildcard ? node.wildcard : node.exact).remove(value);
+
+        for(int i = position.depth - 1; i >= 0 && node.isEmpty(); i--) {
+            final Node<T> parent = visited.pop();
+            parent.children.remove(position.segments[i]);
+            node = parent;
+        }
+        if(root.isEmpty()) roots.remove(method);
+    }
+
+    List<T> candidates(String method, String path) {
+        return candidates(method, path, Collections.singletonList(this));
+    }
+
+    /**
+     * Looks up a path in several indexes at once. Candidates are ordered most specific
+     * first across all of the indexes, and in the order of the given indexes for
+     * equally specific candidates.
+     */
+    static <T> List<T> candidates(String method, String path, List<PrimingIndex<T>> indexes) {
+        final String[] segments = split(path);
+        final List<List<Node<T>>> visitedByIndex = new ArrayList<>(indexes.size());
+        for(PrimingIndex<T> index : indexes) {
+            visitedByIndex.add(index.visit(method, segments));
+        }
+
+        final List<T> candidates = new ArrayList<>();
+        for(List<Node<T>> visited : visitedByIndex) {
+            if(visited.size() == segments.length + 1) {
+                candidates.addAll(visited.get(segments.length).exact);
+            }
+        }
+        for(int depth = segments.length; depth >= 0; depth--) {
+            for(List<Node<T>> visited : visitedByIndex) {
+                if(depth < visited.size()) {
+                    candidates.addAll(visited.get(depth).wildcard);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private List<Node<T>> visit(String method, String[] segments) {
+        final Node<T> root = roots.get(method);
+        if(root == null) return Collections.emptyList();
+
+        final List<Node<T>> visited = new ArrayList<>();
+        Node<T> node = root;
+        int depth = 0;
+        while(node != null) {
+            visited.add(node);
+            node = depth < segments.length ? node.children.get(segments[depth++]) : null;
+        }
+        return visited;
+    }
+
+    void clear() {
+        roots.clear();
+    }
+
+    private static Position positionOf(String path) {
+        if(path == null || path.indexOf('|') > -1) {
+            return new Position(new String[0], 0, true);
+        }
+
+        final String[] segments = split(path);
+        for(int i = 0; i < segments.length; i++) {
+            if(isRegex(segments[i])) {
+                final boolean quantifiesSeparator = !segments[i].isEmpty() && QUANTIFIER_CHARACTERS.indexOf(segments[i].charAt(0)) > -1;
+                return new Position(segments, quantifiesSeparator ? Math.max(i - 1, 0) : i, true);
+            }
+        }
+        return new Position(segments, segments.length, false);
+    }
+
+    private static boolean isRegex(String segment) {
+        for(int i = 0; i < segment.length(); i++) {
+            if(REGEX_CHARACTERS.indexOf(segment.charAt(i)) > -1) return true;
+        }
+        return false;
+    }
+
+    private static String[] split(String path) {
+        return path == null ? new String[0] : path.split("/", -1);
+    }
+
+    private static class Position {
+        private final String[] segments;
+        private final int depth;
+        private final boolean wildcard;
+
+        private Position(String[] segments, int depth, boolean wildcard) {
+            this.segments = segments;
+            this.depth = depth;
+            this.wildcard = wildcard;
+        }
+    }
+
+    private static class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>();
+        private final Set<T> exact = new LinkedHashSet<>();
+        private final Set<T> wildcard = new LinkedHashSet<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && exact.isEmpty() && wildcard.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.jonnymatts.jzonbie.priming;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonnymatts.jzonbie.body.*;
+import com.jonnymatts.jzonbie.requests.AppRequest;
+import com.jonnymatts.jzonbie.responses.AppResponse;
+import com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.USE_DEFAULTS;
+import static com.fasterxml.jackson.databind.DeserializationFeature.*;
+import static com.jonnymatts.jzonbie.body.ArrayBodyContent.arrayBody;
+import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
+import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
+import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
+
+/**
+ * Copies primed requests and responses into the form they would take after being
+ * serialized to JSON and read back, without writing or parsing any JSON.
+ * <p>
+ * Body content is copied structurally: maps and collections become {@link LinkedHashMap}s
+ * and {@link ArrayList}s, and numbers take the type Jackson would read them as, honouring
+ * the object mapper's {@code USE_BIG_DECIMAL_FOR_FLOATS}, {@code USE_BIG_INTEGER_FOR_INTS}
+ * and {@code USE_LONG_FOR_INTS} features. Null map values are dropped when the object mapper's
+ * default content inclusion for maps excludes them from serialization. Values of any other type are converted with the object mapper.
+ */
+public class PrimingNormalizer {
+
+    private final ObjectMapper objectMapper;
+    private final boolean bigDecimalForFloats;
+    private final boolean bigIntegerForInts;
+    private final boolean longForInts;
+    private final boolean excludeNullMapValues;
+
+    public PrimingNormalizer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.bigDecimalForFloats = objectMapper.isEnabled(USE_BIG_DECIMAL_FOR_FLOATS);
+        this.bigIntegerForInts = objectMapper.isEnabled(USE_BIG_INTEGER_FOR_INTS);
+        this.longForInts = objectMapper.isEnabled(USE_LONG_FOR_INTS);
+        final JsonInclude.Include mapContentInclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion(Map.class).getContentInclusion();
+        this.excludeNullMapValues = mapContentInclusion != ALWAYS && mapContentInclusion != USE_DEFAULTS;
+    }
+
+    public ZombiePriming normalize(ZombiePriming zombiePriming) {
+        return new ZombiePriming(normalize(zombiePriming.getRequest()), normalize(zombiePriming.getResponse()));
+    }
+
+    public AppRequest normalize(AppRequest request) {
+        final AppRequest normalized = new AppRequest(request.getMethod(), request.getPath());
+        if(request.getHeaders() != null) {
+            normalized.setHeaders(new HashMap<>(request.getHeaders()));
+        }
+        if(request.getQueryParams() != null) {
+            final Map<String, List<String>> queryParams = new HashMap<>();
+            request.getQueryParams().forEach((name, values) -> queryParams.put(name, values == null ? null : new ArrayList<>(values)));
+            normalized.setQueryParams(queryParams);
+        }
+        normalized.setBody(normalize(request.getBody()));
+        return normalized;
+    }
+
+    public AppResponse normalize(AppResponse response) {
+        final AppResponse normalized = new AppResponse(response.getStatusCode());
+        if(response.getHeaders() != null) {
+            normalized.setHeaders(new HashMap<>(response.getHeaders()));
+        }
+        normalized.setBody(normalize(response.getBody()));
+        response.getDelay().ifPresent(normalized::setDelay);
+        normalized.setTemplated(response.isTemplated());
+        return normalized;
+    }
+
+    public StaticDefaultAppResponse normalize(StaticDefaultAppResponse defaultAppResponse) {
+        final AppResponse response = defaultAppResponse.getResponse();
+        return new StaticDefaultAppResponse(response == null ? null : normalize(response));
+    }
+
+    private BodyContent<?> normalize(BodyContent<?> body) {
+        if(body == null || body.getContent() == null) return null;
+        switch(body.getType()) {
+            case OBJECT:
+                return objectBody(normalizeMap(((ObjectBodyContent) body).getContent()));
+            case ARRAY:
+                return arrayBody(normalizeCollection(((ArrayBodyContent) body).getContent()));
+            case STRING:
+                return stringBody(((StringBodyContent) body).getContent());
+            default:
+                return literalBody(((LiteralBodyContent) body).getContent());
+        }
+    }
+
+    private Object normalizeValue(Object value) {
+        if(value == null || value instanceof String || value instanceof Boolean) return value;
+        if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            return normalizeInteger(((Number) value).longValue());
+        }
+        if(value instanceof BigInteger) return normalizeInteger((BigInteger) value);
+        if(value instanceof Double || value instanceof Float) return normalizeDecimal(value.toString());
+        if(value instanceof BigDecimal) {
+            final String text = value.toString();
+            return text.indexOf('.') < 0 && text.indexOf('E') < 0 ? normalizeInteger(new BigInteger(text)) : normalizeDecimal(text);
+        }
+        if(value instanceof Character) return value.toString();
+        if(value instanceof Map && ((Map<?, ?>) value).keySet().stream().allMatch(key -> key instanceof String)) {
+            return normalizeMap((Map<?, ?>) value);
+        }
+        if(value instanceof Collection) return normalizeCollection((Collection<?>) value);
+        if(value instanceof Object[]) return normalizeCollection(Arrays.asList((Object[]) value));
+        return convert(value);
+    }
+
+    private Map<String, Object> normalizeMap(Map<?, ?> map) {
+        if(map == null) return null;
+        final Map<String, Object> normalized = new LinkedHashMap<>();
+        map.forEach((key, value) -> {
+            if(value != null || !excludeNullMapValues) normalized.put((String) key, normalizeValue(value));
+        });
+        return normalized;
+    }
+
+    private List<Object> normalizeCollection(Collection<?> collection) {
+        if(collection == null) return null;
+        final List<Object> normalized = new ArrayList<>(collection.size());
+        collection.forEach(value -> normalized.add(normalizeValue(value)));
+        return normalized;
+    }
+
+    private Object normalizeInteger(long value) {
+        if(bigIntegerForInts) return BigInteger.valueOf(value);
+        if(!longForInts && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) return (int) value;
+        return value;
+    }
+
+    private Object normalizeInteger(BigInteger value) {
+        return value.bitLength() < 64 ? normalizeInteger(value.longValue()) : value;
+    }
+
+    private Object normalizeDecimal(String text) {
+        final double value = Double.parseDouble(text);
+        if(Double.isNaN(value) || Double.isInfinite(value)) return text;
+        return bigDecimalForFloats ? new BigDecimal(text) : value;
+    }
+
+    private Object convert(Object value) {
+        final Object converted = objectMapper.convertValue(value, Object.class);
+        if(converted == null || converted instanceof String || converted instanceof Boolean
+                || converted instanceof Number || converted instanceof Map || converted instanceof List) {
+            return normalizeValue(converted);
+        }
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(value), Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,45 +4,57 @@ package com.jonnymatts.jzonbie.requests;
 import com.jonnymatts.jzonbie.Request;
 import com.jonnymatts.jzonbie.Response;
 import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.CallHistorySampling;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.history.FixedCapacityCache;
 import com.jonnymatts.jzonbie.priming.AppRequestFactory;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
 import com.jonnymatts.jzonbie.responses.AppResponse;
+import com.jonnymatts.jzonbie.tenants.Tenant;
+import com.jonnymatts.jzonbie.tenants.Tenants;
 
 import java.util.Optional;
 
 public class AppRequestHandler implements RequestHandler {
 
-    private final PrimingContext primingContext;
-    private final CallHistory callHistory;
-    private final FixedCapacityCache<AppRequest> failedRequests;
+    private final Tenants tenants;
+    private final CallHistorySampling callHistorySampling;
     private final AppRequestFactory appRequestFactory;
 
     public AppRequestHandler(PrimingContext primingContext,
                              CallHistory callHistory,
+                             CallHistorySampling callHistorySampling,
                              FixedCapacityCache<AppRequest> failedRequests,
                              AppRequestFactory appRequestFactory) {
-        this.primingContext = primingContext;
-        this.callHistory = callHistory;
-        this.failedRequests = failedRequests;
+        this(new Tenants(new Tenant(null, primingContext, callHistory, failedRequests)), callHistorySampling, appRequestFactory);
+    }
+
+    public AppRequestHandler(Tenants tenants,
+                             CallHistorySampling callHistorySampling,
+                             AppRequestFactory appRequestFactory) {
+        this.tenants = tenants;
+        this.callHistorySampling = callHistorySampling;
         this.appRequestFactory = appRequestFactory;
     }
 
     @Override
     public Response handle(Request request) {
+        final Tenant tenant = tenants.find(request);
         final AppRequest appRequest = appRequestFactory.create(request);
 
-        final Optional<AppResponse> primedResponseOpt = primingContext.getResponse(appRequest);
+        final Optional<AppResponse> primedResponseOpt = tenant.getPrimingContext().getResponse(appRequest);
 
         if(!primedResponseOpt.isPresent()) {
-            failedRequests.add(appRequest);
+            tenant.getFailedRequests().add(appRequest);
             throw new PrimingNotFoundException(appRequest);
         }
 
         final AppResponse zombieResponse = primedResponseOpt.get();
 
-        callHistory.add(new Exchange(appRequest, zombieResponse));
+        final Exchange exchange = new Exchange(appRequest, zombieResponse);
+        if(callHistorySampling.shouldRecord(exchange)) {
+            tenant.getCallHistory().add(exchange);
+        }
 
         return zombieResponse;
     }
@@ -1,24 +1,65 @@
 package com.jonnymatts.jzonbie.requests;
 
+import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
-import com.jonnymatts.jzonbie.responses.defaults.DefaultingQueue;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public class PrimedMappingUploader {
 
+    private static final int BATCH_SIZE = 1000;
+
     private final PrimingContext primingContext;
+    private final Deserializer deserializer;
 
-    public PrimedMappingUploader(PrimingContext primingContext) {
+    public PrimedMappingUploader(PrimingContext primingContext, Deserializer deserializer) {
         this.primingContext = primingContext;
+        this.deserializer = deserializer;
     }
 
     public void upload(List<PrimedMapping> primedMappings) {
-        primedMappings.forEach(primedMapping -> {
-            final DefaultingQueue defaultingQueue = primedMapping.getResponses();
-            defaultingQueue.getPrimed().forEach(appResponse -> primingContext.add(primedMapping.getRequest(), appResponse));
-            defaultingQueue.getDefault().map(defaultResponse -> primingContext.addDefault(primedMapping.getRequest(), defaultResponse));
+        upload(primingContext, primedMappings);
+    }
+
+    public void upload(PrimingContext primingContext, List<PrimedMapping> primedMappings) {
+        primingContext.addPrimedMappings(primedMappings);
+    }
+
+    /**
+     * Uploads the primed mappings in a JSON priming file as they are read, in batches,
+     * so that neither the file nor a parsed tree of it is held in memory.
+     *
+     * @param primingFile stream of a JSON array of primed mappings, closed once read
+     * @return primed mappings uploaded
+     */
+    public List<PrimedMapping> upload(InputStream primingFile) {
+        return upload(primingContext, primingFile);
+    }
+
+    /**
+     * Uploads the primed mappings in a JSON priming file to the given priming context.
+     *
+     * @param primingContext priming context to upload to
+     * @param primingFile stream of a JSON array of primed mappings, closed once read
+     * @return primed mappings uploaded
+     * @see #upload(InputStream)
+     */
+    public List<PrimedMapping> upload(PrimingContext primingContext, InputStream primingFile) {
+        final List<PrimedMapping> uploaded = new ArrayList<>();
+        final List<PrimedMapping> batch = new ArrayList<>(BATCH_SIZE);
+        deserializer.deserializeEach(primingFile, PrimedMapping.class, primedMapping -> {
+            batch.add(primedMapping);
+            if(batch.size() == BATCH_SIZE) {
+                upload(primingContext, batch);
+                uploaded.addAll(batch);
+                batch.clear();
+            }
         });
+        upload(primingContext, batch);
+        uploaded.addAll(batch);
+        return uploaded;
     }
-}
\ No newline at end of file
+}
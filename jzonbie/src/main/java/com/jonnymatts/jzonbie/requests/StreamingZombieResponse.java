@@ -0,0 +1,50 @@
+package com.jonnymatts.jzonbie.requests;
+
+import com.jonnymatts.jzonbie.Body;
+import com.jonnymatts.jzonbie.Response;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonMap;
+
+/**
+ * Zombie response whose body is a JSON array written out element by element
+ * as the given stream is consumed, rather than serialized up front.
+ */
+public class StreamingZombieResponse implements Response {
+
+    private static final Map<String, String> JSON_HEADERS_MAP = singletonMap("Content-Type", "application/json");
+
+    private final int statusCode;
+    private final Stream<?> values;
+
+    public StreamingZombieResponse(int statusCode, Stream<?> values) {
+        this.statusCode = statusCode;
+        this.values = values;
+    }
+
+    public Stream<?> getValues() {
+        return values;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return JSON_HEADERS_MAP;
+    }
+
+    @Override
+    public Body<?> getBody() {
+        return null;
+    }
+
+    @Override
+    public boolean isTemplated() {
+        return false;
+    }
+}
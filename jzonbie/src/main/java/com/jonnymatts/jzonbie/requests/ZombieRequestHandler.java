@@ -10,22 +10,31 @@ import com.jonnymatts.jzonbie.priming.PrimingContext;
 import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.responses.CurrentPrimingFileResponseFactory;
 import com.jonnymatts.jzonbie.responses.CurrentPrimingFileResponseFactory.FileResponse;
+import com.jonnymatts.jzonbie.responses.ErrorResponse;
 import com.jonnymatts.jzonbie.ssl.HttpsSupport;
+import com.jonnymatts.jzonbie.tenants.Tenant;
+import com.jonnymatts.jzonbie.tenants.Tenants;
 import com.jonnymatts.jzonbie.verification.CountResult;
 
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
 import static java.lang.String.format;
 import static java.util.Collections.singletonMap;
+import static org.eclipse.jetty.http.HttpStatus.BAD_REQUEST_400;
 import static org.eclipse.jetty.http.HttpStatus.CREATED_201;
 import static org.eclipse.jetty.http.HttpStatus.OK_200;
 
 public class ZombieRequestHandler implements RequestHandler {
 
-    private final PrimingContext primingContext;
-    private final CallHistory callHistory;
-    private final FixedCapacityCache<AppRequest> failedRequests;
+    private final Tenants tenants;
     private final Deserializer deserializer;
     private final String zombieHeaderName;
     private final CurrentPrimingFileResponseFactory fileResponseFactory;
@@ -40,10 +49,17 @@ public class ZombieRequestHandler implements RequestHandler {
                                 CurrentPrimingFileResponseFactory fileResponseFactory,
                                 PrimedMappingUploader primedMappingUploader,
                                 HttpsSupport httpsSupport) {
+        this(zombieHeaderName, new Tenants(new Tenant(null, primingContext, callHistory, failedRequests)), deserializer, fileResponseFactory, primedMappingUploader, httpsSupport);
+    }
+
+    public ZombieRequestHandler(String zombieHeaderName,
+                                Tenants tenants,
+                                Deserializer deserializer,
+                                CurrentPrimingFileResponseFactory fileResponseFactory,
+                                PrimedMappingUploader primedMappingUploader,
+                                HttpsSupport httpsSupport) {
         this.zombieHeaderName = zombieHeaderName;
-        this.primingContext = primingContext;
-        this.callHistory = callHistory;
-        this.failedRequests = failedRequests;
+        this.tenants = tenants;
         this.deserializer = deserializer;
         this.fileResponseFactory = fileResponseFactory;
         this.primedMappingUploader = primedMappingUploader;
@@ -53,26 +69,27 @@ public class ZombieRequestHandler implements RequestHandler {
     @Override
     public Response handle(Request request) {
         final String zombieHeaderValue = request.getHeaders().get(zombieHeaderName);
-
         switch(zombieHeaderValue) {
             case "priming":
-                return handlePrimingRequest(request);
+                return handlePrimingRequest(tenants.getOrCreate(request), request);
+            case "priming-batch":
+                return handleBatchPrimingRequest(tenants.getOrCreate(request), request);
             case "priming-default":
-                return handleDefaultPrimingRequest(request);
+                return handleDefaultPrimingRequest(tenants.getOrCreate(request), request);
             case "priming-file":
-                return handleFilePrimingRequest(request);
+                return handleFilePrimingRequest(tenants.getOrCreate(request), request);
             case "count":
-                return handleCountRequest(request);
+                return handleCountRequest(tenants.find(request), request);
             case "current":
-                return handleCurrentPrimingRequest();
+                return handleCurrentPrimingRequest(tenants.find(request));
             case "current-file":
-                return handleCurrentPrimingFileRequest();
+                return handleCurrentPrimingFileRequest(tenants.find(request));
             case "history":
-                return handleHistoryRequest();
+                return handleHistoryRequest(tenants.find(request), request);
             case "failed":
-                return handleFailedRequest();
+                return handleFailedRequest(tenants.find(request), request);
             case "reset":
-                return handleResetRequest();
+                return handleResetRequest(tenants.find(request));
             case "truststore":
                 return handleTruststoreRequest();
             case "up":
@@ -82,56 +99,117 @@ public class ZombieRequestHandler implements RequestHandler {
         }
     }
 
-    private ZombieResponse handlePrimingRequest(Request request) {
+    private ZombieResponse handlePrimingRequest(Tenant tenant, Request request) {
         final ZombiePriming zombiePriming = getZombiePriming(request);
 
-        primingContext.add(zombiePriming.getRequest(), zombiePriming.getResponse());
+        tenant.getPrimingContext().add(zombiePriming.getRequest(), zombiePriming.getResponse());
 
         return new ZombieResponse(CREATED_201, zombiePriming);
     }
 
-    private ZombieResponse handleDefaultPrimingRequest(Request request) {
+    private ZombieResponse handleBatchPrimingRequest(Tenant tenant, Request request) {
+        final List<ZombiePriming> zombiePrimings = deserializer.deserializeCollection(request.getBody(), ZombiePriming.class);
+
+        zombiePrimings.forEach(this::validateZombiePriming);
+        tenant.getPrimingContext().addAll(zombiePrimings);
+
+        return new ZombieResponse(CREATED_201, singletonMap("primed", zombiePrimings.size()));
+    }
+
+    private ZombieResponse handleDefaultPrimingRequest(Tenant tenant, Request request) {
         final ZombiePriming zombiePriming = getZombiePriming(request);
 
-        primingContext.addDefault(zombiePriming.getRequest(), staticDefault(zombiePriming.getResponse()));
+        tenant.getPrimingContext().addDefault(zombiePriming.getRequest(), staticDefault(zombiePriming.getResponse()));
 
         return new ZombieResponse(CREATED_201, zombiePriming);
     }
 
-    private ZombieResponse handleFilePrimingRequest(Request request) {
-        final List<PrimedMapping> primedMappings = deserializer.deserializeCollection(request.getPrimingFileContent(), PrimedMapping.class);
+    private ZombieResponse handleFilePrimingRequest(Tenant tenant, Request request) {
+        final InputStream primingFile = request.getPrimingFile();
+
+        if (primingFile == null) {
+            throw new IllegalArgumentException("Priming file cannot be null");
+        }
 
-        primedMappingUploader.upload(primedMappings);
+        final List<PrimedMapping> primedMappings = primedMappingUploader.upload(tenant.getPrimingContext(), primingFile);
 
         return new ZombieResponse(CREATED_201, primedMappings);
     }
 
-    private ZombieResponse handleCurrentPrimingRequest() {
-        return new ZombieResponse(OK_200, primingContext.getCurrentPriming());
+    private ZombieResponse handleCurrentPrimingRequest(Tenant tenant) {
+        return new ZombieResponse(OK_200, tenant.getPrimingContext().getCurrentPriming());
     }
 
-    private FileResponse handleCurrentPrimingFileRequest() {
-        return fileResponseFactory.create(primingContext.getCurrentPriming());
+    private FileResponse handleCurrentPrimingFileRequest(Tenant tenant) {
+        return fileResponseFactory.create(tenant.getPrimingContext().getCurrentPriming());
     }
 
-    private ZombieResponse handleHistoryRequest() {
-        return new ZombieResponse(OK_200, callHistory);
+    private Response handleHistoryRequest(Tenant tenant, Request request) {
+        return page(tenant.getCallHistory()::stream, request);
     }
 
-    private ZombieResponse handleFailedRequest() {
-        return new ZombieResponse(OK_200, failedRequests);
+    private Response handleFailedRequest(Tenant tenant, Request request) {
+        return page(tenant.getFailedRequests()::stream, request);
     }
 
-    private ZombieResponse handleCountRequest(Request request) {
+    private Response page(Function<Instant, Stream<?>> stream, Request request) {
+        final Instant since;
+        final Optional<Long> offset;
+        final Optional<Long> limit;
+        try {
+            since = getQueryParam(request, "since").map(this::parseSince).orElse(null);
+            offset = getQueryParam(request, "offset").map(value -> parseNonNegative("offset", value));
+            limit = getQueryParam(request, "limit").map(value -> parseNonNegative("limit", value));
+        } catch (IllegalArgumentException e) {
+            return new ZombieResponse(BAD_REQUEST_400, new ErrorResponse(e.getMessage()));
+        }
+
+        Stream<?> values = stream.apply(since);
+        if(offset.isPresent()) {
+            values = values.skip(offset.get());
+        }
+        if(limit.isPresent()) {
+            values = values.limit(limit.get());
+        }
+        return new StreamingZombieResponse(OK_200, values);
+    }
+
+    private Instant parseSince(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(format("since must be an ISO-8601 instant, but was: %s", value));
+        }
+    }
+
+    private long parseNonNegative(String name, String value) {
+        final long parsed;
+        try {
+            parsed = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(format("%s must be a number, but was: %s", name, value));
+        }
+        if(parsed < 0) {
+            throw new IllegalArgumentException(format("%s cannot be negative, but was: %s", name, value));
+        }
+        return parsed;
+    }
+
+    private Optional<String> getQueryParam(Request request, String name) {
+        final Map<String, List<String>> queryParams = request.getQueryParams();
+        if(queryParams == null) return Optional.empty();
+        final List<String> values = queryParams.get(name);
+        return values == null || values.isEmpty() ? Optional.empty() : Optional.ofNullable(values.get(0));
+    }
+
+    private ZombieResponse handleCountRequest(Tenant tenant, Request request) {
         final AppRequest appRequest = deserializer.deserialize(request, AppRequest.class);
-        final int count = callHistory.count(appRequest);
+        final int count = tenant.getCallHistory().count(appRequest);
         return new ZombieResponse(OK_200, new CountResult(count));
     }
 
-    private ZombieResponse handleResetRequest() {
-        primingContext.reset();
-        callHistory.clear();
-        failedRequests.clear();
+    private ZombieResponse handleResetRequest(Tenant tenant) {
+        tenants.reset(tenant);
         return new ZombieResponse(OK_200, singletonMap("message", "Zombie Reset"));
     }
 
@@ -145,6 +223,11 @@ public class ZombieRequestHandler implements RequestHandler {
 
     private ZombiePriming getZombiePriming(Request request) {
         final ZombiePriming zombiePriming = deserializer.deserialize(request, ZombiePriming.class);
+        validateZombiePriming(zombiePriming);
+        return zombiePriming;
+    }
+
+    private void validateZombiePriming(ZombiePriming zombiePriming) {
         final AppRequest zombieRequest = zombiePriming.getRequest();
 
         if (zombieRequest.getMethod() == null) {
@@ -154,6 +237,5 @@ public class ZombieRequestHandler implements RequestHandler {
         if (zombieRequest.getPath() == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
-        return zombiePriming;
     }
 }
\ No newline at end of file
@@ -2,17 +2,50 @@ package com.jonnymatts.jzonbie.templating;
 
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import static java.lang.String.format;
 
+/**
+ * Transforms templated response headers and bodies with Handlebars.
+ * <p>
+ * Compiled templates are cached by their template string, so each template
+ * is only compiled once while it remains in the cache.
+ */
 public class ResponseTransformer {
-    private final Handlebars handlebars;
+    private static final int DEFAULT_TEMPLATE_CACHE_CAPACITY = 1000;
+
+    private final LoadingCache<String, Template> templates;
 
     public ResponseTransformer(Handlebars handlebars) {
-        this.handlebars = handlebars;
+        this(handlebars, DEFAULT_TEMPLATE_CACHE_CAPACITY);
+    }
+
+    public ResponseTransformer(Handlebars handlebars, int templateCacheCapacity) {
+        this.templates = CacheBuilder.newBuilder()
+                .maximumSize(templateCacheCapacity)
+                .recordStats()
+                .build(new CacheLoader<String, Template>() {
+                    @Override
+                    public Template load(String template) throws Exception {
+                        return handlebars.compileInline(template);
+                    }
+                });
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the compiled template cache.
+     *
+     * @return template cache statistics
+     */
+    public CacheStats getTemplateCacheStats() {
+        return templates.stats();
     }
 
     public Map<String, String> transformHeaders(TransformationContext transformationContext, Map<String, String> headers) {
@@ -32,7 +65,7 @@ public class ResponseTransformer {
 
     private String transformValue(TransformationContext transformationContext, String value) {
         try {
-            final Template template = handlebars.compileInline(value);
+            final Template template = templates.getUnchecked(value);
             return template.apply(transformationContext);
         } catch (Exception e) {
             throw new TransformResponseException(format("Could not transform: %s", value), e);
@@ -0,0 +1,121 @@
+package com.jonnymatts.jzonbie.tenants;
+
+import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.priming.PrimingContext;
+import com.jonnymatts.jzonbie.requests.AppRequest;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Priming, call history and failed requests belonging to one tenant of a Jzonbie.
+ * <p>
+ * The call history and failed requests can be created lazily, the first time they
+ * are used, so a tenant that is primed but never called does not hold their storage.
+ */
+public class Tenant {
+
+    private final String name;
+    private final PrimingContext primingContext;
+    private final Lazy<CallHistory> callHistory;
+    private final Lazy<FixedCapacityCache<AppRequest>> failedRequests;
+    private volatile long lastUsedMillis;
+
+    public Tenant(String name,
+                  PrimingContext primingContext,
+                  CallHistory callHistory,
+                  FixedCapacityCache<AppRequest> failedRequests) {
+        this(name, primingContext, new Lazy<>(callHistory), new Lazy<>(failedRequests));
+    }
+
+    public Tenant(String name,
+                  PrimingContext primingContext,
+                  Supplier<CallHistory> callHistoryFactory,
+                  Supplier<FixedCapacityCache<AppRequest>> failedRequestsFactory) {
+        this(name, primingContext, new Lazy<>(callHistoryFactory), new Lazy<>(failedRequestsFactory));
+    }
+
+    private Tenant(String name,
+                   PrimingContext primingContext,
+                   Lazy<CallHistory> callHistory,
+                   Lazy<FixedCapacityCache<AppRequest>> failedRequests) {
+        this.name = name;
+        this.primingContext = primingContext;
+        this.callHistory = callHistory;
+        this.failedRequests = failedRequests;
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the name of this tenant, or null for the default tenant.
+     *
+     * @return tenant name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public PrimingContext getPrimingContext() {
+        return primingContext;
+    }
+
+    public CallHistory getCallHistory() {
+        return callHistory.get();
+    }
+
+    public FixedCapacityCache<AppRequest> getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    public boolean isDefault() {
+        return name == null;
+    }
+
+    public void reset() {
+        primingContext.reset();
+        callHistory.ifCreated(CallHistory::clear);
+        failedRequests.ifCreated(FixedCapacityCache::clear);
+    }
+
+    long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    void markUsed(long nowMillis) {
+        lastUsedMillis = nowMillis;
+    }
+
+    private static class Lazy<T> {
+
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        private Lazy(T value) {
+            this.factory = null;
+            this.value = value;
+        }
+
+        private Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private T get() {
+            T current = value;
+            if(current == null) {
+                synchronized(this) {
+                    current = value;
+                    if(current == null) {
+                        current = value = factory.get();
+                    }
+                }
+            }
+            return current;
+        }
+
+        private void ifCreated(Consumer<T> action) {
+            final T current = value;
+            if(current != null) action.accept(current);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.jonnymatts.jzonbie.tenants;
+
+import com.jonnymatts.jzonbie.Request;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Routes requests to the tenant named by a tenant header.
+ * <p>
+ * Requests without the header, or every request if no tenant header is configured,
+ * belong to the default tenant. Other tenants are only created by priming them, with
+ * {@link #getOrCreate}. Looking up a tenant that has not been created, with
+ * {@link #find}, gives a single stand-in shared by every such tenant, which has only
+ * the default priming. Consumable default priming is used up by the stand-in as it
+ * would be by a tenant, until the default tenant is reset.
+ * <p>
+ * The stand-in does not record call history or failed requests. Calls can name any
+ * tenant, so recording them would let arbitrary header values hold memory until the
+ * Jzonbie is reset, and as the stand-in is shared, each unknown tenant would see the
+ * calls of all the others. A tenant whose calls need verifying should be created first.
+ * <p>
+ * Tenants are removed when they are reset. The number of tenants is capped, and
+ * tenants that have not been used for the idle timeout are removed whenever another
+ * tenant is created.
+ */
+public class Tenants {
+
+    private final Tenant defaultTenant;
+    private final String tenantHeaderName;
+    private final Function<String, Tenant> tenantFactory;
+    private final Tenant unknownTenant;
+    private final int maxTenants;
+    private final Duration idleTimeout;
+    private final Clock clock;
+    private final Map<String, Tenant> tenants;
+
+    /**
+     * Creates tenants routing every request to the default tenant, for a Jzonbie
+     * without a tenant header.
+     *
+     * @param defaultTenant the only tenant
+     */
+    public Tenants(Tenant defaultTenant) {
+        this(defaultTenant, null, null, null, 0, null, Clock.systemUTC());
+    }
+
+    /**
+     * Creates tenants selected by a tenant header.
+     *
+     * @param defaultTenant tenant of requests without the tenant header
+     * @param tenantHeaderName name of the tenant header
+     * @param tenantFactory creates a tenant with the given name
+     * @param unknownTenant stand-in for every tenant that has not been created, which should
+     *                      have only the default priming and record nothing
+     * @param maxTenants maximum number of tenants besides the default tenant
+     * @param idleTimeout how long a tenant can go unused before it is removed, or null to keep tenants until reset
+     */
+    public Tenants(Tenant defaultTenant,
+                   String tenantHeaderName,
+                   Function<String, Tenant> tenantFactory,
+                   Tenant unknownTenant,
+                   int maxTenants,
+                   Duration idleTimeout) {
+        this(defaultTenant, tenantHeaderName, tenantFactory, unknownTenant, maxTenants, idleTimeout, Clock.systemUTC());
+    }
+
+    Tenants(Tenant defaultTenant,
+            String tenantHeaderName,
+            Function<String, Tenant> tenantFactory,
+            Tenant unknownTenant,
+            int maxTenants,
+            Duration idleTimeout,
+            Clock clock) {
+        this.defaultTenant = defaultTenant;
+        this.tenantHeaderName = tenantHeaderName;
+        this.tenantFactory = tenantFactory;
+        this.unknownTenant = unknownTenant;
+        this.maxTenants = maxTenants;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+        this.tenants = new ConcurrentHashMap<>();
+    }
+
+    public Tenant getDefault() {
+        return defaultTenant;
+    }
+
+    /**
+     * Finds the tenant of a request without creating it.
+     *
+     * @param request request naming the tenant in the tenant header
+     * @return the tenant, the default tenant if none is named, or a stand-in if the named tenant has not been created
+     */
+    public Tenant find(Request request) {
+        if(tenantHeaderName == null) return defaultTenant;
+        return find(getTenantName(request));
+    }
+
+    /**
+     * Finds a tenant by name without creating it.
+     *
+     * @param name name of the tenant
+     * @return the tenant, the default tenant if the name is null or empty, or a stand-in if the tenant has not been created
+     */
+    public Tenant find(String name) {
+        if(tenantHeaderName == null || name == null || name.isEmpty()) return defaultTenant;
+        final Tenant tenant = tenants.get(name);
+        if(tenant == null) return unknownTenant;
+        tenant.markUsed(clock.millis());
+        return tenant;
+    }
+
+    /**
+     * Gets the tenant of a request, creating it if needed.
+     *
+     * @param request request naming the tenant in the tenant header
+     * @throws IllegalStateException if the tenant would exceed the maximum number of tenants
+     * @return the tenant, or the default tenant if none is named
+     */
+    public Tenant getOrCreate(Request request) {
+        if(tenantHeaderName == null) return defaultTenant;
+        return getOrCreate(getTenantName(request));
+    }
+
+    /**
+     * Gets a tenant by name, creating it if needed.
+     *
+     * @param name name of the tenant
+     * @throws IllegalStateException if the tenant would exceed the maximum number of tenants
+     * @return the tenant, or the default tenant if the name is null or empty
+     */
+    public Tenant getOrCreate(String name) {
+        if(tenantHeaderName == null || name == null || name.isEmpty()) return defaultTenant;
+        final long now = clock.millis();
+        final Tenant tenant = tenants.get(name);
+        if(tenant != null) {
+            tenant.markUsed(now);
+            return tenant;
+        }
+        return create(name, now);
+    }
+
+    /**
+     * Resets a tenant. The default tenant is reset in place, along with the stand-in for
+     * tenants that have not been created. Any other tenant is removed, and resetting the
+     * stand-in itself does nothing, as it is shared by every tenant that has not been created.
+     *
+     * @param tenant tenant to reset
+     */
+    public void reset(Tenant tenant) {
+        if(tenant.isDefault()) {
+            tenant.reset();
+            if(unknownTenant != null) unknownTenant.reset();
+        } else if(tenant != unknownTenant) {
+            remove(tenant);
+        }
+    }
+
+    public Collection<Tenant> getAll() {
+        final List<Tenant> all = new ArrayList<>(tenants.size() + 1);
+        all.add(defaultTenant);
+        all.addAll(tenants.values());
+        return all;
+    }
+
+    private synchronized Tenant create(String name, long now) {
+        final Tenant existing = tenants.get(name);
+        if(existing != null) {
+            existing.markUsed(now);
+            return existing;
+        }
+        removeIdle(now);
+        if(tenants.size() >= maxTenants) {
+            throw new IllegalStateException(format("Cannot create tenant %s, the maximum of %d tenants already exist", name, maxTenants));
+        }
+        final Tenant tenant = tenantFactory.apply(name);
+        tenant.markUsed(now);
+        tenants.put(name, tenant);
+        return tenant;
+    }
+
+    private void removeIdle(long now) {
+        if(idleTimeout == null) return;
+        final long idleBefore = now - idleTimeout.toMillis();
+        tenants.values().stream()
+                .filter(tenant -> tenant.getLastUsedMillis() < idleBefore)
+                .forEach(this::remove);
+    }
+
+    private void remove(Tenant tenant) {
+        tenants.remove(tenant.getName(), tenant);
+    }
+
+    private String getTenantName(Request request) {
+        final Map<String, String> headers = request.getHeaders();
+        return headers == null ? null : headers.get(tenantHeaderName);
+    }
+}
@@ -9,21 +9,25 @@ import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.client.utils.HttpClientUtils;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse.staticDefault;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
@@ -90,6 +94,79 @@ class JzonbieConcurrencyTest {
         });
     }
 
+    @Test
+    void jzonbieDoesNotHoldThreadsWhileResponsesAreDelayed(Jzonbie jzonbie) throws Exception {
+        jzonbie.prime(get("/delayed"), staticDefault(ok().withDelay(Duration.of(2, SECONDS))));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(5);
+        final List<Future<HttpResponse>> futures = IntStream.range(0, 5).boxed()
+                .map(i -> executorService.submit(() -> httpClient.execute(RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/delayed").build())))
+                .collect(toList());
+
+        Thread.sleep(1000);
+
+        final long threadsHandlingRequests = Thread.getAllStackTraces().values().stream()
+                .filter(stackTrace -> Stream.of(stackTrace).anyMatch(frame -> frame.getClassName().startsWith("com.jonnymatts.jzonbie.pippo")))
+                .count();
+
+        assertThat(threadsHandlingRequests).isZero();
+
+        for(Future<HttpResponse> future : futures) {
+            final HttpResponse response = future.get();
+            assertThat(response.getStatusLine().getStatusCode()).isEqualTo(200);
+            HttpClientUtils.closeQuietly(response);
+        }
+        executorService.shutdown();
+    }
+
+    @Test
+    void jzonbieServesEachPrimedResponseOnceWhenCalledConcurrently(Jzonbie jzonbie) throws Exception {
+        final int requestCount = 200;
+        IntStream.range(0, requestCount).forEach(i -> jzonbie.prime(get("/once"), ok().withBody(String.valueOf(i))));
+
+        final List<Callable<String>> callables = IntStream.range(0, requestCount).boxed()
+                .map(i -> (Callable<String>)() -> {
+                    final HttpResponse response = httpClient.execute(RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/once").build());
+                    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(200);
+                    return EntityUtils.toString(response.getEntity());
+                }).collect(toList());
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(10);
+        final List<String> bodies = new ArrayList<>();
+        for(Future<String> future : executorService.invokeAll(callables)) {
+            bodies.add(future.get());
+        }
+        executorService.shutdown();
+
+        assertThat(bodies).containsOnlyElementsOf(IntStream.range(0, requestCount).mapToObj(String::valueOf).collect(toList()));
+        assertThat(bodies).doesNotHaveDuplicates();
+        assertThat(jzonbie.getCurrentPriming()).noneMatch(mapping -> mapping.getRequest().getPath().equals("/once"));
+    }
+
+    @Test
+    void jzonbieServesAndRecordsEveryRequestWhenCalledConcurrently(Jzonbie jzonbie) throws Exception {
+        final int pathCount = 200;
+        final int requestCount = 800;
+        IntStream.range(0, pathCount).forEach(i -> jzonbie.prime(get("/default/" + i + "/.*"), staticDefault(ok().withBody(String.valueOf(i)))));
+
+        final List<Callable<String>> callables = IntStream.range(0, requestCount).boxed()
+                .map(i -> (Callable<String>)() -> {
+                    final HttpResponse response = httpClient.execute(RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/default/" + (i % pathCount) + "/item").build());
+                    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(200);
+                    return EntityUtils.toString(response.getEntity());
+                }).collect(toList());
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        final List<Future<String>> futures = executorService.invokeAll(callables);
+        executorService.shutdown();
+
+        for(int i = 0; i < requestCount; i++) {
+            assertThat(futures.get(i).get()).isEqualTo(String.valueOf(i % pathCount));
+        }
+        assertThat(jzonbie.getHistory()).hasSize(requestCount);
+        assertThat(jzonbie.getFailedRequests()).isEmpty();
+    }
+
     private HttpUriRequest createRequest(int i, Jzonbie jzonbie) {
         return RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/" + i).build();
     }
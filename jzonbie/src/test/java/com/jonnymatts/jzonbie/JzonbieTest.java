@@ -2,9 +2,11 @@ package com.jonnymatts.jzonbie;
 
 import com.google.common.base.Stopwatch;
 import com.jonnymatts.jzonbie.client.ApacheJzonbieHttpClient;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory;
 import com.jonnymatts.jzonbie.junit.JzonbieExtension;
 import com.jonnymatts.jzonbie.pippo.JzonbieRoute;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
+import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
@@ -42,6 +44,7 @@ import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
 import static com.jonnymatts.jzonbie.responses.defaults.DynamicDefaultAppResponse.dynamicDefault;
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
 import static com.jonnymatts.jzonbie.verification.InvocationVerificationCriteria.equalTo;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
@@ -161,6 +164,23 @@ class JzonbieTest {
         assertThat(primedMapping.getResponses().getDefault()).contains(defaultResponse);
     }
 
+    @Test
+    void jzonbieCanBePrimedWithManyPrimingsAtOnce(Jzonbie jzonbie) {
+        final AppRequest request = get("/");
+        final AppResponse response1 = ok().withBody(objectBody(singletonMap("key", "val")));
+        final AppResponse response2 = ok().withBody(stringBody("message"));
+        jzonbie.primeAll(asList(new ZombiePriming(request, response1), new ZombiePriming(request, response2)));
+
+        final List<PrimedMapping> got = jzonbie.getCurrentPriming();
+
+        assertThat(got).hasSize(1);
+
+        final PrimedMapping primedMapping = got.get(0);
+
+        assertThat(primedMapping.getRequest()).isEqualTo(request);
+        assertThat(primedMapping.getResponses().getPrimed()).containsExactly(response1, response2);
+    }
+
     @Test
     void jzonbieCanBePrimedWithAFile(Jzonbie jzonbie) {
         jzonbie.prime(getExamplePrimingFile());
@@ -407,6 +427,34 @@ class JzonbieTest {
         assertThat(jzonbie.getHistory()).hasSize(2);
     }
 
+    @Test
+    void jzonbieCallHistoryCanBeStoredOffHeap() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withCallHistoryMaxBytes(1024 * 1024)
+        );
+
+        callJzonbieWithRequest(4, jzonbie, get("/"), ok().withBody(objectBody(singletonMap("key", "val"))), true);
+
+        assertThat(jzonbie.getHistory()).hasSize(4);
+        jzonbie.verify(get("/"), equalTo(4));
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void jzonbieCallHistoryCanBeRecordedAsynchronously() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withAsyncCallHistoryRecording(10, AsyncCallHistory.Overflow.BLOCK)
+        );
+
+        callJzonbieWithRequest(4, jzonbie, get("/"), ok(), true);
+
+        assertThat(jzonbie.getHistory()).hasSize(4);
+        jzonbie.verify(get("/"), equalTo(4));
+
+        jzonbie.stop();
+    }
+
     @Test
     void jzonbieFailedRequestsCapacityCanBeSet() throws IOException {
         final Jzonbie jzonbie = new Jzonbie(
@@ -418,6 +466,152 @@ class JzonbieTest {
         assertThat(jzonbie.getFailedRequests()).hasSize(2);
     }
 
+    @Test
+    void jzonbieFailedRequestsTimeToLiveCanBeSet() throws Exception {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withFailedRequestsTimeToLive(Duration.ofMillis(200))
+        );
+
+        callJzonbieWithRequest(2, jzonbie, get("/"), ok(), false);
+
+        assertThat(jzonbie.getFailedRequests()).hasSize(2);
+
+        Thread.sleep(300);
+
+        assertThat(jzonbie.getFailedRequests()).isEmpty();
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void jzonbieTenantsHaveIsolatedPrimingAndCallHistory() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withTenantHeaderName("tenant").withPriming(priming(get("/default"), ok()))
+        );
+        final String baseUrl = "http://localhost:" + jzonbie.getHttpPort();
+        final JzonbieClient tenant = new ApacheJzonbieHttpClient(baseUrl).forTenant("tenant", "a");
+
+        tenant.prime(get("/"), ok());
+
+        assertThat(tenant.getCurrentPriming()).hasSize(2);
+        assertThat(jzonbie.getCurrentPriming()).hasSize(1);
+
+        final HttpResponse tenantResponse = client.execute(RequestBuilder.get(baseUrl + "/").addHeader("tenant", "a").build());
+        EntityUtils.consume(tenantResponse.getEntity());
+        final HttpResponse defaultResponse = client.execute(RequestBuilder.get(baseUrl + "/").build());
+        EntityUtils.consume(defaultResponse.getEntity());
+
+        assertThat(tenantResponse.getStatusLine().getStatusCode()).isEqualTo(SC_OK);
+        assertThat(defaultResponse.getStatusLine().getStatusCode()).isEqualTo(SC_NOT_FOUND);
+        assertThat(tenant.getHistory()).hasSize(1);
+        assertThat(jzonbie.getHistory()).isEmpty();
+        assertThat(jzonbie.getFailedRequests()).hasSize(1);
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void jzonbieServesDefaultPrimingWithoutRecordingCallsOfTenantsThatHaveNotBeenPrimed() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withTenantHeaderName("tenant").withPriming(priming(get("/default"), ok()))
+        );
+        final String baseUrl = "http://localhost:" + jzonbie.getHttpPort();
+        final JzonbieClient tenant = new ApacheJzonbieHttpClient(baseUrl).forTenant("tenant", "a");
+
+        final HttpResponse response = client.execute(RequestBuilder.get(baseUrl + "/default").addHeader("tenant", "a").build());
+        EntityUtils.consume(response.getEntity());
+
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(SC_OK);
+        assertThat(tenant.getHistory()).isEmpty();
+        assertThat(tenant.getCurrentPriming()).isEmpty();
+        assertThat(jzonbie.getHistory()).isEmpty();
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void tenantsThatHaveNotBeenPrimedUseUpDefaultPrimingUntilJzonbieIsReset() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withTenantHeaderName("tenant").withPriming(priming(get("/default"), ok()))
+        );
+        final String baseUrl = "http://localhost:" + jzonbie.getHttpPort();
+
+        assertThat(getStatusCodeForTenant(baseUrl + "/default", "a")).isEqualTo(SC_OK);
+        assertThat(getStatusCodeForTenant(baseUrl + "/default", "a")).isEqualTo(SC_NOT_FOUND);
+        assertThat(getStatusCodeForTenant(baseUrl + "/default", "b")).isEqualTo(SC_NOT_FOUND);
+
+        jzonbie.reset();
+
+        assertThat(getStatusCodeForTenant(baseUrl + "/default", "b")).isEqualTo(SC_OK);
+
+        jzonbie.stop();
+    }
+
+    private int getStatusCodeForTenant(String url, String tenant) throws IOException {
+        final HttpResponse response = client.execute(RequestBuilder.get(url).addHeader("tenant", tenant).build());
+        EntityUtils.consume(response.getEntity());
+        return response.getStatusLine().getStatusCode();
+    }
+
+    @Test
+    void tenantPrimingFailsOnceMaximumNumberOfTenantsExist() {
+        final Jzonbie jzonbie = new Jzonbie(options().withTenantHeaderName("tenant").withMaxTenants(1));
+
+        jzonbie.forTenant("a").prime(get("/"), ok());
+
+        assertThatThrownBy(() -> jzonbie.forTenant("b").prime(get("/"), ok()))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("maximum of 1 tenants");
+
+        jzonbie.forTenant("a").reset();
+        jzonbie.forTenant("b").prime(get("/"), ok());
+
+        assertThat(jzonbie.forTenant("b").getCurrentPriming()).hasSize(1);
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void createTenantRecordsCallsServedOnlyByDefaultPriming() throws IOException {
+        final Jzonbie jzonbie = new Jzonbie(
+                options().withTenantHeaderName("tenant").withPriming(priming(get("/default"), ok()))
+        );
+        final JzonbieClient tenant = jzonbie.createTenant("a");
+
+        assertThat(getStatusCodeForTenant("http://localhost:" + jzonbie.getHttpPort() + "/default", "a")).isEqualTo(SC_OK);
+
+        tenant.verify(get("/default"));
+        assertThat(jzonbie.createTenant("a").getHistory()).hasSize(1);
+        assertThat(jzonbie.getHistory()).isEmpty();
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void forTenantReturnsClientForOnlyThatTenant() {
+        final Jzonbie jzonbie = new Jzonbie(options().withTenantHeaderName("tenant"));
+        final JzonbieClient tenant = jzonbie.forTenant("a");
+
+        tenant.prime(get("/"), ok());
+
+        assertThat(tenant.getCurrentPriming()).hasSize(1);
+        assertThat(jzonbie.forTenant("b").getCurrentPriming()).isEmpty();
+        assertThat(jzonbie.getCurrentPriming()).isEmpty();
+
+        tenant.reset();
+
+        assertThat(tenant.getCurrentPriming()).isEmpty();
+
+        jzonbie.stop();
+    }
+
+    @Test
+    void forTenantThrowsExceptionIfNoTenantHeaderIsConfigured(Jzonbie jzonbie) {
+        assertThatThrownBy(() -> jzonbie.forTenant("a"))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("tenant");
+    }
+
     @Test
     void jzonbieCanBePrimedWithAnDefaultPrimingFile() {
         Jzonbie jzonbieWithDefaultPrimings = new Jzonbie(options().withDefaultPrimingFile(getExamplePrimingFile()));
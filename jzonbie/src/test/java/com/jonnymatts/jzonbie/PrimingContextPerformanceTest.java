@@ -1,84 +1,159 @@
 package com.jonnymatts.jzonbie;
 
-import com.flextrade.jfixture.JFixture;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
 import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.assertj.core.api.Assertions.assertThat;
 
-@Disabled("Run this only if you are changing the priming context")
 class PrimingContextPerformanceTest {
 
-    private JFixture fixture;
+    private static final int PRIMING_COUNT = 100_000;
+    private static final int REQUEST_COUNT = 1000;
+    private static final List<String> VALUES = IntStream.range(0, 1000).mapToObj(i -> randomString()).collect(Collectors.toList());
+
+    private static List<ZombiePriming> samePathPrimings;
+    private static List<ZombiePriming> distinctPathPrimings;
+
     private PrimingContext primingContext;
-    private List<ZombiePriming> primings;
     private Set<Integer> indices;
 
+    @BeforeAll
+    static void createPrimings() {
+        samePathPrimings = createPrimings(i ->
+                get("/path")
+                        .withBody(objectBody(randomMap(i, 50)))
+                        .withHeader("key1", randomString())
+                        .withHeader("key2", randomString())
+                        .withHeader("key3", randomString())
+                        .withHeader("key4", randomString())
+                        .withQueryParam("param1", randomString())
+                        .withQueryParam("param2", randomString())
+                        .withQueryParam("param3", randomString())
+        );
+        distinctPathPrimings = createPrimings(i ->
+                get("/path/" + i)
+                        .withBody(objectBody(randomMap(i, 5)))
+                        .withHeader("key1", randomString())
+                        .withHeader("key2", randomString())
+                        .withQueryParam("param1", randomString())
+        );
+    }
+
     @BeforeEach
     void setup() {
-        fixture = new JFixture();
         primingContext = new PrimingContext();
-        System.out.println("Fixturing data...");
-        primings = IntStream.range(0, 100_000).boxed().map(
-                i -> new ZombiePriming(
-                        get("/path")
-                                .withBody(objectBody(fixture.collections().createMap(String.class, String.class, 50)))
-                                .withHeader("key1", fixtureString())
-                                .withHeader("key2", fixtureString())
-                                .withHeader("key3", fixtureString())
-                                .withHeader("key4", fixtureString())
-                                .withQueryParam("param1", fixtureString())
-                                .withQueryParam("param2", fixtureString())
-                                .withQueryParam("param3", fixtureString()),
-
-                        AppResponse.response(fixture.create(Integer.class))
-                )
-        ).collect(Collectors.toList());
-        System.out.println("... done.");
         indices = new HashSet<>();
-        while (indices.size() < 1000) {
-            indices.add(RandomUtils.nextInt(0, primings.size()));
+        while (indices.size() < REQUEST_COUNT) {
+            indices.add(RandomUtils.nextInt(0, PRIMING_COUNT));
         }
     }
 
-    private String fixtureString() {
-        return fixture.create(String.class);
+    @Test
+    void getResponseFromPrimedContext() {
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        samePathPrimings.forEach(primingContext::add);
+        stopWatch.stop();
+        System.out.println(stopWatch.getTime() + " ms elapsed inserting " + samePathPrimings.size() + " primings");
+
+        assertThat(stopWatch.getTime()).isLessThan(10_000);
+
+        assertLookupsTakeLessThan(samePathPrimings, 2000);
+    }
+
+    @Test
+    void getResponseFromPrimingContextPrimedInBulk() {
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        primingContext.addAll(samePathPrimings);
+        stopWatch.stop();
+        System.out.println(stopWatch.getTime() + " ms elapsed inserting " + samePathPrimings.size() + " primings in bulk");
+
+        assertThat(stopWatch.getTime()).isLessThan(10_000);
+
+        assertLookupsTakeLessThan(samePathPrimings, 2000);
     }
 
-    @Test                 //  primed,   got
-    //                        30_000, 1,000
-    // naive,loop                100,    10
-    // map, linear insert        100,     6
-    // map, get on insert        0.1, 0.005
-    void getResponseFromPrimedContext() {
+    @Test
+    void getResponseFromPrimedContextForDistinctPaths() {
+        distinctPathPrimings.forEach(primingContext::add);
+
+        assertLookupsTakeLessThan(distinctPathPrimings, 2000);
+    }
+
+    @Test
+    void getResponseFromPrimedContextForRegexPaths() {
+        distinctPathPrimings.forEach(priming -> {
+            final AppRequest request = new AppRequest(priming.getRequest());
+            request.setPath(request.getPath() + "/items/[0-9]+");
+            primingContext.add(request, priming.getResponse());
+        });
+
         final StopWatch stopWatch = new StopWatch();
         stopWatch.start();
-        primings.forEach(primingContext::add);
+        for (int i : indices) {
+            final AppRequest request = new AppRequest(distinctPathPrimings.get(i).getRequest());
+            request.setPath(request.getPath() + "/items/" + i);
+            assertThat(primingContext.getResponse(request)).contains(distinctPathPrimings.get(i).getResponse());
+        }
         stopWatch.stop();
-        long time = stopWatch.getTime();
-        System.out.println(time + " ms elapsed inserting " + primings.size() + " primings");
+        System.out.println(stopWatch.getTime() + " ms elapsed getting " + indices.size() + " requests");
+
+        assertThat(stopWatch.getTime()).isLessThan(4000);
+    }
 
-        stopWatch.reset();
+    private void assertLookupsTakeLessThan(List<ZombiePriming> primings, long maxMillis) {
+        final StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         for (int i : indices) {
             final AppRequest request = primings.get(i).getRequest();
-            primingContext.getResponse(request).get();
+            assertThat(primingContext.getResponse(request)).contains(primings.get(i).getResponse());
         }
-        time = stopWatch.getTime();
-        System.out.println(time + " ms elapsed getting " + indices.size() + " requests");
+        stopWatch.stop();
+        System.out.println(stopWatch.getTime() + " ms elapsed getting " + indices.size() + " requests");
+
+        assertThat(stopWatch.getTime()).isLessThan(maxMillis);
+    }
+
+    private static List<ZombiePriming> createPrimings(IntFunction<AppRequest> request) {
+        return IntStream.range(0, PRIMING_COUNT)
+                .mapToObj(i -> new ZombiePriming(request.apply(i), AppResponse.response(RandomUtils.nextInt(0, Integer.MAX_VALUE))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a body unique to the priming. Field names and most values are shared between
+     * bodies, so that 100,000 primings with large bodies fit in a test heap.
+     */
+    private static Map<String, String> randomMap(int priming, int size) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("field0", String.valueOf(priming));
+        for (int i = 1; i < size; i++) {
+            map.put(("field" + i).intern(), VALUES.get(RandomUtils.nextInt(0, VALUES.size())));
+        }
+        return map;
+    }
+
+    private static String randomString() {
+        return randomAlphanumeric(36);
     }
-}
\ No newline at end of file
+}
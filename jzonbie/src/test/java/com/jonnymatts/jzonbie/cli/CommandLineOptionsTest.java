@@ -2,12 +2,15 @@ package com.jonnymatts.jzonbie.cli;
 
 import com.jonnymatts.jzonbie.HttpsOptions;
 import com.jonnymatts.jzonbie.JzonbieOptions;
+import com.jonnymatts.jzonbie.history.AsyncCallHistory;
 import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
 
 import java.io.File;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CommandLineOptionsTest {
 
@@ -23,7 +26,14 @@ class CommandLineOptionsTest {
         assertThat(commandLineOptions.keystoreLocation).isNull();
         assertThat(commandLineOptions.keystorePassword).isNull();
         assertThat(commandLineOptions.callHistoryCapacity).isNull();
+        assertThat(commandLineOptions.callHistoryMaxBytes).isNull();
+        assertThat(commandLineOptions.callHistoryTimeToLive).isNull();
+        assertThat(commandLineOptions.callHistorySampling).isNull();
+        assertThat(commandLineOptions.asyncCallHistoryQueueCapacity).isNull();
+        assertThat(commandLineOptions.asyncCallHistoryOverflow).isEqualTo(AsyncCallHistory.Overflow.BLOCK);
         assertThat(commandLineOptions.failedRequestsCapacity).isNull();
+        assertThat(commandLineOptions.failedRequestsMaxBytes).isNull();
+        assertThat(commandLineOptions.failedRequestsTimeToLive).isNull();
         assertThat(commandLineOptions.initialPrimingFile).isNull();
         assertThat(commandLineOptions.defaultPrimingFile).isNull();
     }
@@ -119,6 +129,62 @@ class CommandLineOptionsTest {
         assertThat(commandLineOptions.callHistoryCapacity).isEqualTo(100);
     }
 
+    @Test
+    void callHistoryMaxBytes() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--call-history-max-bytes", "1048576");
+
+        assertThat(commandLineOptions.callHistoryMaxBytes).isEqualTo(1048576L);
+    }
+
+    @Test
+    void callHistoryTimeToLive() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--call-history-ttl", "PT10M");
+
+        assertThat(commandLineOptions.callHistoryTimeToLive).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void callHistorySampleOneIn() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--call-history-sample-one-in", "10");
+
+        assertThat(commandLineOptions.callHistorySampling.callHistorySampleOneIn).isEqualTo(10);
+    }
+
+    @Test
+    void callHistoryFailuresOnly() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--call-history-failures-only");
+
+        assertThat(commandLineOptions.callHistorySampling.callHistoryFailuresOnly).isTrue();
+    }
+
+    @Test
+    void callHistorySampleOneInAndFailuresOnlyCannotBeCombined() {
+        assertThatThrownBy(() -> getCommandLineOptions("--call-history-sample-one-in", "10", "--call-history-failures-only"))
+                .isInstanceOf(CommandLine.MutuallyExclusiveArgsException.class);
+    }
+
+    @Test
+    void asyncCallHistory() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--call-history-async-queue-capacity", "100", "--call-history-async-overflow", "DROP");
+
+        assertThat(commandLineOptions.asyncCallHistoryQueueCapacity).isEqualTo(100);
+        assertThat(commandLineOptions.asyncCallHistoryOverflow).isEqualTo(AsyncCallHistory.Overflow.DROP);
+    }
+
+    @Test
+    void failedRequestsMaxBytes() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--failed-requests-max-bytes", "1048576");
+
+        assertThat(commandLineOptions.failedRequestsMaxBytes).isEqualTo(1048576L);
+    }
+
+    @Test
+    void failedRequestsTimeToLive() {
+        final CommandLineOptions commandLineOptions = getCommandLineOptions("--failed-requests-ttl", "PT5M");
+
+        assertThat(commandLineOptions.failedRequestsTimeToLive).isEqualTo(Duration.ofMinutes(5));
+    }
+
     @Test
     void failedRequestsCapacity() {
         final CommandLineOptions commandLineOptions = getCommandLineOptions("--failed-requests-capacity", "100");
@@ -138,6 +204,24 @@ class CommandLineOptionsTest {
         assertThat(commandLineOptions.defaultPrimingFile).isEqualTo(new File("missing-file"));
     }
 
+    @Test
+    void tenantHeaderName() {
+        CommandLineOptions commandLineOptions = getCommandLineOptions("--tenant-header-name", "tenant");
+        assertThat(commandLineOptions.tenantHeaderName).isEqualTo("tenant");
+    }
+
+    @Test
+    void maxTenants() {
+        CommandLineOptions commandLineOptions = getCommandLineOptions("--max-tenants", "10");
+        assertThat(commandLineOptions.maxTenants).isEqualTo(10);
+    }
+
+    @Test
+    void tenantIdleTimeout() {
+        CommandLineOptions commandLineOptions = getCommandLineOptions("--tenant-idle-timeout", "PT30M");
+        assertThat(commandLineOptions.tenantIdleTimeout).isEqualTo(Duration.ofMinutes(30));
+    }
+
     @Test
     void toJzonbieOptions() {
         final JzonbieOptions jzonbieOptions = CommandLineOptions.toJzonbieOptions(
@@ -150,9 +234,17 @@ class CommandLineOptionsTest {
                                 "-kp", "password",
                                 "-cn", "common-name",
                                 "--call-history-capacity", "100",
+                                "--call-history-max-bytes", "1048576",
+                                "--call-history-ttl", "PT10M",
+                                "--call-history-async-queue-capacity", "200",
                                 "--failed-requests-capacity", "50",
+                                "--failed-requests-max-bytes", "2048",
+                                "--failed-requests-ttl", "PT5M",
                                 "--initial-priming-file", "initial",
                                 "--default-priming-file", "default",
+                                "--tenant-header-name", "tenant",
+                                "--max-tenants", "10",
+                                "--tenant-idle-timeout", "PT30M",
                         }
                 )
         );
@@ -160,9 +252,18 @@ class CommandLineOptionsTest {
         assertThat(jzonbieOptions.getHttpPort()).isEqualTo(8000);
         assertThat(jzonbieOptions.getZombieHeaderName()).isEqualTo("name");
         assertThat(jzonbieOptions.getCallHistoryCapacity()).isEqualTo(100);
+        assertThat(jzonbieOptions.getCallHistoryMaxBytes()).contains(1048576L);
+        assertThat(jzonbieOptions.getCallHistoryTimeToLive()).contains(Duration.ofMinutes(10));
+        assertThat(jzonbieOptions.getAsyncCallHistoryQueueCapacity()).contains(200);
+        assertThat(jzonbieOptions.getAsyncCallHistoryOverflow()).isEqualTo(AsyncCallHistory.Overflow.BLOCK);
         assertThat(jzonbieOptions.getFailedRequestsCapacity()).isEqualTo(50);
+        assertThat(jzonbieOptions.getFailedRequestsMaxBytes()).contains(2048L);
+        assertThat(jzonbieOptions.getFailedRequestsTimeToLive()).contains(Duration.ofMinutes(5));
         assertThat(jzonbieOptions.getInitialPrimingFile()).contains(new File("initial"));
         assertThat(jzonbieOptions.getDefaultPrimingFile()).contains(new File("default"));
+        assertThat(jzonbieOptions.getTenantHeaderName()).contains("tenant");
+        assertThat(jzonbieOptions.getMaxTenants()).isEqualTo(10);
+        assertThat(jzonbieOptions.getTenantIdleTimeout()).contains(Duration.ofMinutes(30));
 
         final HttpsOptions httpsOptions = jzonbieOptions.getHttpsOptions().get();
         assertThat(httpsOptions.getPort()).isEqualTo(8001);
@@ -179,6 +280,13 @@ class CommandLineOptionsTest {
         assertThat(jzonbieOptions.getZombieHeaderName()).isEqualTo("zombie");
         assertThat(jzonbieOptions.getHttpsOptions()).isEmpty();
         assertThat(jzonbieOptions.getCallHistoryCapacity()).isEqualTo(1000);
+        assertThat(jzonbieOptions.getCallHistoryMaxBytes()).isEmpty();
+        assertThat(jzonbieOptions.getCallHistoryTimeToLive()).isEmpty();
+        assertThat(jzonbieOptions.getFailedRequestsMaxBytes()).isEmpty();
+        assertThat(jzonbieOptions.getFailedRequestsTimeToLive()).isEmpty();
+        assertThat(jzonbieOptions.getAsyncCallHistoryQueueCapacity()).isEmpty();
+        assertThat(jzonbieOptions.getMaxTenants()).isEqualTo(1000);
+        assertThat(jzonbieOptions.getTenantIdleTimeout()).isEmpty();
     }
 
     private CommandLineOptions getCommandLineOptions(String... args) {
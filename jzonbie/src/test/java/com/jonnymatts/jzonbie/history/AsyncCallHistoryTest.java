@@ -0,0 +1,163 @@
+package com.jonnymatts.jzonbie.history;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.jonnymatts.jzonbie.history.AsyncCallHistory.Overflow.BLOCK;
+import static com.jonnymatts.jzonbie.history.AsyncCallHistory.Overflow.DROP;
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncCallHistoryTest {
+
+    private final Exchange exchange1 = new Exchange(get("/1"), ok());
+    private final Exchange exchange2 = new Exchange(get("/2"), ok());
+
+    private CallHistoryRecorder recorder;
+    private AsyncCallHistory underTest;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new CallHistoryRecorder(10, BLOCK);
+        underTest = new AsyncCallHistory(new FixedCapacityCallHistory(100), recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.stop();
+    }
+
+    @Test
+    void getValuesReturnsExchangesAddedBeforeTheCall() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+
+        assertThat(underTest.getValues()).containsExactly(exchange1, exchange2);
+        assertThat(underTest.stream(null)).containsExactly(exchange1, exchange2);
+    }
+
+    @Test
+    void countIncludesExchangesAddedBeforeTheCall() {
+        underTest.add(exchange1);
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+
+        assertThat(underTest.count(get("/1"))).isEqualTo(2);
+    }
+
+    @Test
+    void clearRemovesExchangesAddedBeforeTheCall() {
+        underTest.add(exchange1);
+
+        underTest.clear();
+
+        assertThat(underTest.getValues()).isEmpty();
+    }
+
+    @Test
+    void historiesSharingRecorderOnlyContainTheirOwnExchanges() {
+        final AsyncCallHistory other = new AsyncCallHistory(new FixedCapacityCallHistory(100), recorder);
+
+        underTest.add(exchange1);
+        other.add(exchange2);
+        underTest.add(exchange1);
+
+        assertThat(underTest.getValues()).containsExactly(exchange1, exchange1);
+        assertThat(other.getValues()).containsExactly(exchange2);
+    }
+
+    @Test
+    void addDropsExchangesWhenQueueIsFullAndOverflowIsDrop() throws Exception {
+        final CountDownLatch recording = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CallHistoryRecorder recorder = new CallHistoryRecorder(2, DROP);
+        final AsyncCallHistory history = new AsyncCallHistory(blockingHistory(recording, release), recorder);
+
+        history.add(exchange1);
+        recording.await(5, SECONDS);
+
+        IntStream.range(0, 5).forEach(i -> history.add(exchange2));
+        release.countDown();
+
+        assertThat(history.getValues()).containsExactly(exchange1, exchange2, exchange2);
+
+        recorder.stop();
+    }
+
+    @Test
+    void addWaitsForSpaceWhenQueueIsFullAndOverflowIsBlock() throws Exception {
+        final CallHistoryRecorder recorder = new CallHistoryRecorder(1, BLOCK);
+        final AsyncCallHistory history = new AsyncCallHistory(new FixedCapacityCallHistory(1000), recorder);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        final List<Future<?>> futures = IntStream.range(0, 4)
+                .mapToObj(thread -> executorService.submit(() -> IntStream.range(0, 100).forEach(i -> history.add(exchange1))))
+                .collect(toList());
+
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        assertThat(history.getValues()).hasSize(400);
+
+        recorder.stop();
+    }
+
+    @Test
+    void addRecordsExchangesOnceStopped() {
+        underTest.add(exchange1);
+        recorder.stop();
+
+        underTest.add(exchange2);
+
+        assertThat(underTest.getValues()).containsExactly(exchange1, exchange2);
+    }
+
+    @Test
+    void addWaitingForSpaceRecordsExchangeOnceStopped() throws Exception {
+        final CountDownLatch recording = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CallHistoryRecorder recorder = new CallHistoryRecorder(1, BLOCK);
+        final AsyncCallHistory history = new AsyncCallHistory(blockingHistory(recording, release), recorder);
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        history.add(exchange1);
+        recording.await(5, SECONDS);
+        history.add(exchange2);
+        final Future<?> blockedAdd = executorService.submit(() -> history.add(exchange2));
+
+        recorder.stop();
+        release.countDown();
+        blockedAdd.get(5, SECONDS);
+        executorService.shutdown();
+
+        assertThat(history.getValues()).containsExactlyInAnyOrder(exchange1, exchange2, exchange2);
+    }
+
+    private CallHistory blockingHistory(CountDownLatch recording, CountDownLatch release) {
+        return new FixedCapacityCallHistory(100) {
+            @Override
+            public void add(Exchange exchange) {
+                recording.countDown();
+                try {
+                    release.await(5, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.add(exchange);
+            }
+        };
+    }
+}
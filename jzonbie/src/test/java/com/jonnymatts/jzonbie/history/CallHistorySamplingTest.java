@@ -0,0 +1,57 @@
+package com.jonnymatts.jzonbie.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static com.jonnymatts.jzonbie.history.CallHistorySampling.*;
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.requests.AppRequest.post;
+import static com.jonnymatts.jzonbie.responses.AppResponse.internalServerError;
+import static com.jonnymatts.jzonbie.responses.AppResponse.notFound;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallHistorySamplingTest {
+
+    private final Exchange exchange = new Exchange(get("/path"), ok());
+
+    @Test
+    void allRecordsEveryExchange() {
+        final CallHistorySampling sampling = all();
+
+        assertThat(IntStream.range(0, 10).filter(i -> sampling.shouldRecord(exchange)).count()).isEqualTo(10);
+    }
+
+    @Test
+    void oneInRecordsEveryNthExchange() {
+        final CallHistorySampling sampling = oneIn(3);
+
+        assertThat(IntStream.range(0, 9).filter(i -> sampling.shouldRecord(exchange)).count()).isEqualTo(3);
+    }
+
+    @Test
+    void oneInThrowsExceptionIfIntervalIsLessThanOne() {
+        assertThatThrownBy(() -> oneIn(0))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void failuresOnlyRecordsErrorResponses() {
+        final CallHistorySampling sampling = failuresOnly();
+
+        assertThat(sampling.shouldRecord(exchange)).isFalse();
+        assertThat(sampling.shouldRecord(new Exchange(get("/path"), notFound()))).isTrue();
+        assertThat(sampling.shouldRecord(new Exchange(get("/path"), internalServerError()))).isTrue();
+    }
+
+    @Test
+    void matchingRecordsExchangesMatchingAnyGivenRequest() {
+        final CallHistorySampling sampling = matching(get("/path"), post("/.*"));
+
+        assertThat(sampling.shouldRecord(exchange)).isTrue();
+        assertThat(sampling.shouldRecord(new Exchange(post("/other"), ok()))).isTrue();
+        assertThat(sampling.shouldRecord(new Exchange(get("/other"), ok()))).isFalse();
+    }
+}
@@ -3,7 +3,15 @@ package com.jonnymatts.jzonbie.history;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -75,4 +83,110 @@ class FixedCapacityCacheTest {
         assertThat(underTest.getValues()).containsExactly(3, 4, 5);
     }
 
-}
\ No newline at end of file
+    @Test
+    void streamReturnsValuesInOrder() {
+        underTest.add(1);
+        underTest.add(2);
+        underTest.add(3);
+        underTest.add(4);
+
+        assertThat(underTest.stream(null)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void streamOnlyReturnsValuesAddedSinceTheGivenTime() throws Exception {
+        underTest.add(1);
+        Thread.sleep(10);
+        final Instant since = Instant.now();
+        underTest.add(2);
+
+        assertThat(underTest.stream(since)).containsExactly(2);
+    }
+
+    @Test
+    void valuesOlderThanTimeToLiveAreNotReturned() throws Exception {
+        final FixedCapacityCache<Integer> cache = new FixedCapacityCache<>(3, Duration.ofMillis(50), Long.MAX_VALUE, value -> 0);
+
+        cache.add(1);
+        Thread.sleep(100);
+        cache.add(2);
+
+        assertThat(cache.getValues()).containsExactly(2);
+        assertThat(cache.stream(null)).containsExactly(2);
+    }
+
+    @Test
+    void addEvictsOldestValuesWhenMaxBytesIsExceeded() {
+        final FixedCapacityCache<Integer> cache = new FixedCapacityCache<>(10, null, 10, value -> value);
+
+        cache.add(4);
+        cache.add(3);
+        cache.add(2);
+
+        assertThat(cache.getValues()).containsExactly(4, 3, 2);
+
+        cache.add(5);
+
+        assertThat(cache.getValues()).containsExactly(3, 2, 5);
+    }
+
+    @Test
+    void clearReleasesBytesOfClearedValues() {
+        final FixedCapacityCache<Integer> cache = new FixedCapacityCache<>(10, null, 10, value -> value);
+
+        cache.add(6);
+        cache.clear();
+        cache.add(5);
+        cache.add(5);
+
+        assertThat(cache.getValues()).containsExactly(5, 5);
+    }
+
+    @Test
+    void overwrittenValuesReleaseTheirBytes() {
+        final FixedCapacityCache<Integer> cache = new FixedCapacityCache<>(2, null, 10, value -> value);
+
+        cache.add(5);
+        cache.add(5);
+        cache.add(5);
+        cache.add(5);
+
+        assertThat(cache.getValues()).containsExactly(5, 5);
+    }
+
+    @Test
+    void addAfterClearOnlyReturnsNewValues() {
+        underTest.add(1);
+        underTest.add(2);
+
+        underTest.clear();
+
+        underTest.add(3);
+
+        assertThat(underTest.getValues()).containsExactly(3);
+    }
+
+    @Test
+    void addKeepsMostRecentValuesWhenCalledConcurrently() throws Exception {
+        final FixedCapacityCache<Integer> cache = new FixedCapacityCache<>(100);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        final List<Future<?>> futures = IntStream.range(0, 4)
+                .mapToObj(thread -> executorService.submit(() -> IntStream.range(0, 10000).forEach(i -> {
+                    cache.add(thread * 10000 + i);
+                    cache.getValues();
+                })))
+                .collect(toList());
+
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        final List<Integer> got = cache.getValues();
+
+        assertThat(got).hasSize(100);
+        assertThat(got).doesNotHaveDuplicates();
+        assertThat(got).doesNotContainNull();
+    }
+}
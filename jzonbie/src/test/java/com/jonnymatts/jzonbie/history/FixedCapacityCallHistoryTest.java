@@ -0,0 +1,95 @@
+package com.jonnymatts.jzonbie.history;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.requests.AppRequest.post;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixedCapacityCallHistoryTest {
+
+    private final Exchange exchange1 = new Exchange(get("1"), ok());
+    private final Exchange exchange2 = new Exchange(get("2"), ok());
+    private final Exchange exchange3 = new Exchange(post("1"), ok());
+
+    private CallHistory underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new FixedCapacityCallHistory(3);
+    }
+
+    @Test
+    void countReturnsRequestCountOfMatchingRequestWhenHistoryHasASingleRequest() throws Exception {
+        underTest.add(exchange1);
+
+        final int got = underTest.count(exchange1.getRequest());
+
+        assertThat(got).isEqualTo(1);
+    }
+
+    @Test
+    void countReturnsRequestZeroIfCallHistoryIsEmpty() throws Exception {
+        final int got = underTest.count(exchange1.getRequest());
+
+        assertThat(got).isEqualTo(0);
+    }
+
+    @Test
+    void countOnlyCountsRequestsWithTheSameMethodAndPath() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange3);
+
+        assertThat(underTest.count(get("1"))).isEqualTo(1);
+        assertThat(underTest.count(post("1"))).isEqualTo(1);
+        assertThat(underTest.count(get("3"))).isEqualTo(0);
+    }
+
+    @Test
+    void countCountsRequestsMatchingARegexPath() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange3);
+
+        final int got = underTest.count(get("[0-9]"));
+
+        assertThat(got).isEqualTo(2);
+    }
+
+    @Test
+    void countDoesNotCountRequestsDroppedFromHistory() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange2);
+        underTest.add(exchange2);
+
+        assertThat(underTest.count(get("1"))).isEqualTo(0);
+        assertThat(underTest.count(get("2"))).isEqualTo(3);
+    }
+
+    @Test
+    void countCountsRequestsAddedAgainAfterTheirEarlierRequestsWereDropped() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange2);
+        underTest.add(exchange2);
+        underTest.add(exchange1);
+
+        assertThat(underTest.count(get("1"))).isEqualTo(1);
+        assertThat(underTest.count(get("2"))).isEqualTo(2);
+        assertThat(underTest.count(get(".*"))).isEqualTo(3);
+    }
+
+    @Test
+    void countReturnsZeroAfterHistoryIsCleared() {
+        underTest.add(exchange1);
+
+        underTest.clear();
+
+        assertThat(underTest.count(get("1"))).isEqualTo(0);
+    }
+}
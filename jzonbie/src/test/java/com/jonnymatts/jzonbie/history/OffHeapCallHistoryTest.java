@@ -0,0 +1,91 @@
+package com.jonnymatts.jzonbie.history;
+
+import com.jonnymatts.jzonbie.jackson.JzonbieObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.requests.AppRequest.post;
+import static com.jonnymatts.jzonbie.responses.AppResponse.created;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapCallHistoryTest {
+
+    private final Exchange exchange1 = new Exchange(get("/1"), ok());
+    private final Exchange exchange2 = new Exchange(get("/2").withHeader("header", "value"), ok().withBody(objectBody(singletonMap("key", "value"))));
+    private final Exchange exchange3 = new Exchange(post("/1").withBody(objectBody(singletonMap("key", "value"))), created());
+
+    private OffHeapCallHistory underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new OffHeapCallHistory(1024 * 1024, new JzonbieObjectMapper());
+    }
+
+    @Test
+    void getValuesReturnsAllExchangesInHistory() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange3);
+
+        final List<Exchange> got = underTest.getValues();
+
+        assertThat(got).containsExactly(exchange1, exchange2, exchange3);
+    }
+
+    @Test
+    void countReturnsNumberOfMatchingExchanges() {
+        underTest.add(exchange1);
+        underTest.add(exchange2);
+        underTest.add(exchange3);
+        underTest.add(exchange1);
+
+        assertThat(underTest.count(get("/1"))).isEqualTo(2);
+        assertThat(underTest.count(post("/1"))).isEqualTo(1);
+        assertThat(underTest.count(get("/[0-9]"))).isEqualTo(3);
+        assertThat(underTest.count(get("/2").withHeader("header", "other"))).isEqualTo(0);
+    }
+
+    @Test
+    void clearRemovesAllHistory() {
+        underTest.add(exchange1);
+
+        underTest.clear();
+
+        assertThat(underTest.getValues()).isEmpty();
+        assertThat(underTest.count(get("/1"))).isEqualTo(0);
+    }
+
+    @Test
+    void exchangesOlderThanTimeToLiveAreNotReturnedOrCounted() throws Exception {
+        final OffHeapCallHistory history = new OffHeapCallHistory(1024 * 1024, Duration.ofMillis(50), new JzonbieObjectMapper());
+
+        history.add(exchange1);
+        Thread.sleep(100);
+        history.add(exchange2);
+
+        assertThat(history.getValues()).containsExactly(exchange2);
+        assertThat(history.count(get("/1"))).isEqualTo(0);
+    }
+
+    @Test
+    void addDropsOldestExchangesWhenHistoryIsFull() {
+        final OffHeapCallHistory history = new OffHeapCallHistory(1024, new JzonbieObjectMapper());
+
+        for(int i = 0; i < 100; i++) {
+            history.add(new Exchange(get("/" + i), ok()));
+        }
+
+        final List<Exchange> got = history.getValues();
+
+        assertThat(got).isNotEmpty();
+        assertThat(got.size()).isLessThan(100);
+        assertThat(got.get(got.size() - 1)).isEqualTo(new Exchange(get("/99"), ok()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.jonnymatts.jzonbie.history;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingQueueTest {
+
+    private RingQueue<Integer> underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new RingQueue<>(3);
+    }
+
+    @Test
+    void pollReturnsValuesInTheOrderTheyWereOffered() {
+        underTest.offer(1);
+        underTest.offer(2);
+
+        assertThat(underTest.poll()).isEqualTo(1);
+        assertThat(underTest.poll()).isEqualTo(2);
+        assertThat(underTest.poll()).isNull();
+    }
+
+    @Test
+    void offerRefusesValuesWhenQueueIsFull() {
+        assertThat(underTest.offer(1)).isTrue();
+        assertThat(underTest.offer(2)).isTrue();
+        assertThat(underTest.offer(3)).isTrue();
+
+        assertThat(underTest.offer(4)).isFalse();
+
+        underTest.poll();
+
+        assertThat(underTest.offer(4)).isTrue();
+        assertThat(drain()).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void offerRefusesSecondValueWhenCapacityIsOne() {
+        final RingQueue<Integer> queue = new RingQueue<>(1);
+
+        assertThat(queue.offer(1)).isTrue();
+        assertThat(queue.offer(2)).isFalse();
+        assertThat(queue.poll()).isEqualTo(1);
+        assertThat(queue.offer(2)).isTrue();
+        assertThat(queue.poll()).isEqualTo(2);
+    }
+
+    @Test
+    void isEmptyReturnsWhetherValuesAreWaitingToBePolled() {
+        assertThat(underTest.isEmpty()).isTrue();
+
+        underTest.offer(1);
+
+        assertThat(underTest.isEmpty()).isFalse();
+
+        underTest.poll();
+
+        assertThat(underTest.isEmpty()).isTrue();
+    }
+
+    @Test
+    void drainToRemovesAllValues() {
+        underTest.offer(1);
+        underTest.offer(2);
+
+        final List<Integer> drained = new ArrayList<>();
+
+        assertThat(underTest.drainTo(drained)).isEqualTo(2);
+        assertThat(drained).containsExactly(1, 2);
+        assertThat(underTest.isEmpty()).isTrue();
+    }
+
+    @Test
+    void constructorThrowsExceptionWhenCapacityIsLessThanOne() {
+        assertThatThrownBy(() -> new RingQueue<>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offerKeepsEveryValueWhenCalledConcurrently() throws Exception {
+        final RingQueue<Integer> queue = new RingQueue<>(16);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        final List<Future<?>> futures = IntStream.range(0, 4)
+                .mapToObj(thread -> executorService.submit(() -> IntStream.range(0, 1000).forEach(i -> {
+                    while(!queue.offer(thread * 1000 + i)) {
+                        Thread.yield();
+                    }
+                })))
+                .collect(toList());
+
+        final List<Integer> polled = new ArrayList<>();
+        while(polled.size() < 4000) {
+            queue.drainTo(polled);
+        }
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        assertThat(polled).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 4000).boxed().collect(toList()));
+        IntStream.range(0, 4).forEach(thread ->
+                assertThat(polled.stream().filter(value -> value / 1000 == thread).collect(toList())).isSorted());
+    }
+
+    private List<Integer> drain() {
+        final List<Integer> drained = new ArrayList<>();
+        underTest.drainTo(drained);
+        return drained;
+    }
+}
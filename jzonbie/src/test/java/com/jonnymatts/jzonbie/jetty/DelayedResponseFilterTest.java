@@ -0,0 +1,77 @@
+package com.jonnymatts.jzonbie.jetty;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedResponseFilterTest {
+
+    @Mock private HttpServletRequest request;
+    @Mock private HttpServletResponse response;
+    @Mock private AsyncContext asyncContext;
+
+    private ScheduledExecutorService scheduler;
+    private DelayedResponseFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = newSingleThreadScheduledExecutor();
+        underTest = new DelayedResponseFilter(scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void doFilterDoesNotStartAsyncIfResponseIsNotDelayed() throws Exception {
+        final FilterChain chain = (req, res) -> assertThat(DelayableResponse.find(res)).isPresent();
+
+        underTest.doFilter(request, response, chain);
+
+        verify(request, never()).startAsync(any(), any());
+    }
+
+    @Test
+    void doFilterSendsDelayedResponseAsynchronously() throws Exception {
+        final CountDownLatch sent = new CountDownLatch(1);
+        final DelayableResponse[] delayableResponse = new DelayableResponse[1];
+        final FilterChain chain = (req, res) -> {
+            delayableResponse[0] = DelayableResponse.find(res).get();
+            delayableResponse[0].delay(Duration.ofMillis(100), sent::countDown);
+        };
+
+        when(request.startAsync(any(), any())).thenReturn(asyncContext);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(asyncContext).start(any());
+
+        underTest.doFilter(request, response, chain);
+
+        assertThat(delayableResponse[0].isCommitted()).isTrue();
+        assertThat(sent.await(5, SECONDS)).isTrue();
+        verify(asyncContext, timeout(5000)).complete();
+        verify(asyncContext).setTimeout(0);
+        assertThat(delayableResponse[0].isCommitted()).isFalse();
+    }
+}
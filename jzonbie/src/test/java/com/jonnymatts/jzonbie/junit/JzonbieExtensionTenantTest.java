@@ -0,0 +1,77 @@
+package com.jonnymatts.jzonbie.junit;
+
+import com.jonnymatts.jzonbie.JzonbieClient;
+import com.jonnymatts.jzonbie.junit.JzonbieExtension.JzonbieConfiguration;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.responses.AppResponse.response;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(JzonbieExtension.class)
+@JzonbieConfiguration(TenantJzonbie.class)
+class JzonbieExtensionTenantTest {
+
+    private static TenantJzonbie lastJzonbie;
+    private static TenantHeader lastTenantHeader;
+
+    private final CloseableHttpClient client = HttpClientBuilder.create().build();
+
+    @RepeatedTest(5)
+    void eachTestHasItsOwnTenant(TenantJzonbie jzonbie, JzonbieClient tenant, TenantHeader tenantHeader) throws IOException {
+        assertThat(tenantHeader.getName()).isEqualTo("tenant");
+        assertThat(tenantHeader).isNotEqualTo(lastTenantHeader);
+        if(lastJzonbie != null) {
+            assertThat(jzonbie).isSameAs(lastJzonbie);
+        }
+        lastJzonbie = jzonbie;
+        lastTenantHeader = tenantHeader;
+
+        assertThat(tenant.getCurrentPriming()).hasSize(1);
+        assertThat(tenant.getHistory()).isEmpty();
+
+        tenant.prime(get("/"), response(201));
+
+        final HttpResponse got = client.execute(
+                RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/")
+                        .addHeader(tenantHeader.getName(), tenantHeader.getValue())
+                        .build()
+        );
+        EntityUtils.consume(got.getEntity());
+
+        assertThat(got.getStatusLine().getStatusCode()).isEqualTo(201);
+        tenant.verify(get("/"));
+        assertThat(jzonbie.getHistory()).isEmpty();
+        assertThat(jzonbie.getCurrentPriming()).hasSize(1);
+    }
+
+    @RepeatedTest(2)
+    void callsServedOnlyByDefaultPrimingAreRecorded(TenantJzonbie jzonbie, JzonbieClient tenant, TenantHeader tenantHeader) throws IOException {
+        final HttpResponse got = client.execute(
+                RequestBuilder.get("http://localhost:" + jzonbie.getHttpPort() + "/default")
+                        .addHeader(tenantHeader.getName(), tenantHeader.getValue())
+                        .build()
+        );
+        EntityUtils.consume(got.getEntity());
+
+        assertThat(got.getStatusLine().getStatusCode()).isEqualTo(200);
+        tenant.verify(get("/default"));
+        assertThat(tenant.getHistory()).hasSize(1);
+        assertThat(tenant.getFailedRequests()).isEmpty();
+        assertThat(jzonbie.getHistory()).isEmpty();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.jonnymatts.jzonbie.junit;
+
+import com.jonnymatts.jzonbie.Jzonbie;
+
+import static com.jonnymatts.jzonbie.JzonbieOptions.options;
+import static com.jonnymatts.jzonbie.defaults.StandardPriming.priming;
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+
+class TenantJzonbie extends Jzonbie {
+    TenantJzonbie() {
+        super(
+                options()
+                        .withTenantHeaderName("tenant")
+                        .withPriming(priming(get("/default"), ok()))
+        );
+    }
+}
@@ -3,8 +3,10 @@ package com.jonnymatts.jzonbie.pippo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Stopwatch;
 import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.CallHistorySampling;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.history.FixedCapacityCallHistory;
 import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.jackson.JzonbieObjectMapper;
 import com.jonnymatts.jzonbie.priming.AppRequestFactory;
@@ -41,6 +43,9 @@ import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
 import static com.jonnymatts.jzonbie.responses.AppResponse.*;
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
 import static io.restassured.RestAssured.given;
+import static io.restassured.config.DecoderConfig.decoderConfig;
+import static io.restassured.config.RestAssuredConfig.config;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
@@ -54,12 +59,12 @@ import static org.hamcrest.Matchers.startsWith;
 class PippoApplicationTest {
 
     private static PrimingContext primingContext = new PrimingContext();
-    private static final CallHistory callHistory = new CallHistory(3);
+    private static final CallHistory callHistory = new FixedCapacityCallHistory(3);
     private static final FixedCapacityCache<AppRequest> failedRequests = new FixedCapacityCache<>(3);
     private static final ObjectMapper objectMapper = new JzonbieObjectMapper();
     private static final Deserializer deserializer = new Deserializer(objectMapper);
-    private static final AppRequestHandler appRequestHandler = new AppRequestHandler(primingContext, callHistory, failedRequests, new AppRequestFactory(deserializer));
-    private static final PrimedMappingUploader primedMappingUploader = new PrimedMappingUploader(primingContext);
+    private static final AppRequestHandler appRequestHandler = new AppRequestHandler(primingContext, callHistory, CallHistorySampling.all(), failedRequests, new AppRequestFactory(deserializer));
+    private static final PrimedMappingUploader primedMappingUploader = new PrimedMappingUploader(primingContext, deserializer);
     private static final ZombieRequestHandler zombieRequestHandler = new ZombieRequestHandler("zombie", primingContext, callHistory, failedRequests, deserializer, new CurrentPrimingFileResponseFactory(objectMapper), primedMappingUploader, new HttpsSupport());
     private static final ResponseTransformer responseTransformer = new ResponseTransformer(new JzonbieHandlebars());
     private static final PippoResponder pippoResponder = new PippoResponder(responseTransformer, objectMapper);
@@ -216,6 +221,24 @@ class PippoApplicationTest {
         pippoResponse.then().body("[0].response.statusCode", CoreMatchers.equalTo(appResponse.getStatusCode()));
     }
 
+    @Test
+    void testHistoryWithLimitAndOffset() throws Exception {
+        callHistory.add(new Exchange(AppRequest.get("/1"), appResponse));
+        callHistory.add(new Exchange(AppRequest.get("/2"), appResponse));
+        callHistory.add(new Exchange(AppRequest.get("/3"), appResponse));
+
+        final Response pippoResponse = given()
+                .header("zombie", "history")
+                .queryParam("offset", 1)
+                .queryParam("limit", 1)
+                .contentType(ContentType.JSON)
+                .post("/");
+        pippoResponse.then().statusCode(200);
+        pippoResponse.then().contentType(ContentType.JSON);
+        pippoResponse.then().body("size()", equalTo(1));
+        pippoResponse.then().body("[0].request.path", equalTo("/2"));
+    }
+
     @Test
     void testFailedRequests() throws Exception {
         failedRequests.add(appRequest);
@@ -361,6 +384,37 @@ class PippoApplicationTest {
         pippoResponse.then().body(equalTo("2"));
     }
 
+    @Test
+    void testAppRequestWithDefaultBodyPrimingIsServedRepeatedly() throws Exception {
+        final AppResponse response = ok().contentType("application/json").withBody(objectBody(singletonMap("message", "caf\u00e9")));
+        final String expectedBody = objectMapper.writeValueAsString(singletonMap("message", "caf\u00e9"));
+
+        primingContext.addDefault(AppRequest.get("/default"), staticDefault(response));
+
+        for(int i = 0; i < 2; i++) {
+            final Response pippoResponse = given().get("/default");
+            pippoResponse.then().statusCode(200);
+            assertThat(pippoResponse.getBody().asString()).isEqualTo(expectedBody);
+        }
+    }
+
+    @Test
+    void testAppRequestWithDefaultBodyPrimingIsServedRepeatedlyWithoutCompression() throws Exception {
+        final AppResponse response = ok().withBody(objectBody(singletonMap("message", "caf\u00e9")));
+        final String expectedBody = objectMapper.writeValueAsString(singletonMap("message", "caf\u00e9"));
+
+        primingContext.addDefault(AppRequest.get("/default"), staticDefault(response));
+
+        final Response first = given().config(config().decoderConfig(decoderConfig().noContentDecoders())).get("/default");
+        for(int i = 0; i < 2; i++) {
+            final Response pippoResponse = given().config(config().decoderConfig(decoderConfig().noContentDecoders())).get("/default");
+            pippoResponse.then().statusCode(200);
+            assertThat(pippoResponse.getBody().asString()).isEqualTo(expectedBody);
+            assertThat(pippoResponse.getContentType()).isEqualTo(first.getContentType());
+            assertThat(pippoResponse.getHeader("Content-Length")).isEqualTo(String.valueOf(expectedBody.getBytes(UTF_8).length));
+        }
+    }
+
     @Test
     void testCount() throws Exception {
         final AppRequest appRequest = AppRequest.get("/")
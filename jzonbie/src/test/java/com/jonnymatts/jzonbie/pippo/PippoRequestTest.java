@@ -10,11 +10,13 @@ import ro.pippo.core.FileItem;
 import ro.pippo.core.ParameterValue;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static com.google.common.collect.Iterators.asEnumeration;
+import static com.google.common.io.ByteStreams.toByteArray;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -22,6 +24,7 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,7 +54,7 @@ class PippoRequestTest {
             put("qVar2", new ParameterValue("qVal1"));
             put("qVar3", new ParameterValue());
         }});
-        when(request.getFile("priming").getInputStream()).thenReturn(new ByteArrayInputStream(body.getBytes()));
+        lenient().when(request.getFile("priming").getInputStream()).thenReturn(new ByteArrayInputStream(body.getBytes()));
 
         pippoRequest = new PippoRequest(request);
     }
@@ -100,20 +103,20 @@ class PippoRequestTest {
     }
 
     @Test
-    void getPrimingFileContentReturnsContentOfPrimingFile() throws Exception {
+    void getPrimingFileReturnsContentOfPrimingFile() throws Exception {
         when(request.getContentType()).thenReturn("multipart/form-data");
 
-        final String got = new PippoRequest(request).getPrimingFileContent();
+        final String got = new String(toByteArray(new PippoRequest(request).getPrimingFile()));
 
         assertThat(got).isEqualTo(body);
     }
 
     @Test
-    void getPrimingFileContentReturnsNullIfPrimingFileIsNotPresent() throws Exception {
-        when(request.getContentType()).thenReturn("multipart/form-data");
+    void getPrimingFileReturnsNullIfRequestIsNotMultipart() throws Exception {
+        when(request.getContentType()).thenReturn("application/json");
 
-        final String got = new PippoRequest(request).getPrimingFileContent();
+        final InputStream got = new PippoRequest(request).getPrimingFile();
 
-        assertThat(got).isEqualTo(body);
+        assertThat(got).isNull();
     }
 }
\ No newline at end of file
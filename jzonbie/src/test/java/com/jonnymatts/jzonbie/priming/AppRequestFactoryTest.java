@@ -3,6 +3,7 @@ package com.jonnymatts.jzonbie.priming;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.flextrade.jfixture.JFixture;
 import com.jonnymatts.jzonbie.Request;
+import com.jonnymatts.jzonbie.jackson.DeserializationException;
 import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,7 +12,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,13 +19,13 @@ import static com.jonnymatts.jzonbie.body.ArrayBodyContent.arrayBody;
 import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
 import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
 import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
-import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.requests.AppRequest.request;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AppRequestFactoryTest {
@@ -42,20 +42,16 @@ class AppRequestFactoryTest {
     private final Map<String, Object> bodyMap = singletonMap("var", "val");
     private final Map<String, String> headers = singletonMap("hVar", "hVal");
     private final Map<String, List<String>> queryParams = singletonMap("qVar", asList("qVal1", "qVal2"));
-    private final AppRequest appRequest = get("/");
 
-    private HashMap<String, Object> expectedMap;
+    private AppRequest appRequest;
 
     private AppRequestFactory appRequestFactory;
 
     @BeforeEach
     void setUp() throws Exception {
-        expectedMap = new HashMap<String, Object>() {{
-            put("path", path);
-            put("method", requestMethod);
-            put("headers", headers);
-            put("queryParams", queryParams);
-        }};
+        appRequest = request(requestMethod, path);
+        appRequest.setHeaders(headers);
+        appRequest.setQueryParams(queryParams);
 
         requestBody = "{" + requestBody + "}";
 
@@ -73,8 +69,6 @@ class AppRequestFactoryTest {
         when(request.getBody()).thenReturn(requestBody);
 
         when(deserializer.deserialize(requestBody)).thenReturn(bodyMap);
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
-
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
@@ -88,8 +82,6 @@ class AppRequestFactoryTest {
         when(request.getQueryParams()).thenReturn(queryParams);
         when(request.getBody()).thenReturn(null);
 
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
-
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
@@ -103,8 +95,6 @@ class AppRequestFactoryTest {
         when(request.getQueryParams()).thenReturn(queryParams);
         when(request.getBody()).thenReturn("");
 
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
-
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
@@ -121,8 +111,6 @@ class AppRequestFactoryTest {
         when(request.getQueryParams()).thenReturn(queryParams);
         when(request.getBody()).thenReturn(bodyString);
 
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
-
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
@@ -142,8 +130,6 @@ class AppRequestFactoryTest {
 
         when(deserializer.deserialize(eq(bodyString), any(TypeReference.class))).thenReturn(bodyList);
 
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
-
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
@@ -160,10 +146,45 @@ class AppRequestFactoryTest {
         when(request.getQueryParams()).thenReturn(queryParams);
         when(request.getBody()).thenReturn(bodyString);
 
-        when(deserializer.deserialize(expectedMap, AppRequest.class)).thenReturn(new AppRequest(appRequest));
+        final AppRequest got = appRequestFactory.create(request);
+
+        assertThat(got).isEqualTo(appRequest);
+    }
+
+    @Test
+    void createDoesNotParseBodyUntilItIsAccessed() throws Exception {
+        when(request.getPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn(requestMethod);
+        when(request.getHeaders()).thenReturn(headers);
+        when(request.getQueryParams()).thenReturn(queryParams);
+        when(request.getBody()).thenReturn(requestBody);
+
+        final AppRequest got = appRequestFactory.create(request);
+
+        verifyZeroInteractions(deserializer);
+        assertThat(got.hasBody()).isTrue();
+
+        when(deserializer.deserialize(requestBody)).thenReturn(bodyMap);
+
+        assertThat(got.getBody()).isEqualTo(objectBody(bodyMap));
+        assertThat(got.getBody()).isEqualTo(objectBody(bodyMap));
+        verify(deserializer, times(1)).deserialize(requestBody);
+    }
+
+    @Test
+    void createReturnsLiteralBodyContentBodyIfJsonBodyCannotBeParsed() throws Exception {
+        appRequest.setBody(literalBody(requestBody));
+
+        when(request.getPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn(requestMethod);
+        when(request.getHeaders()).thenReturn(headers);
+        when(request.getQueryParams()).thenReturn(queryParams);
+        when(request.getBody()).thenReturn(requestBody);
+
+        when(deserializer.deserialize(requestBody)).thenThrow(new DeserializationException("Error deserializing to map", new RuntimeException()));
 
         final AppRequest got = appRequestFactory.create(request);
 
         assertThat(got).isEqualTo(appRequest);
     }
-}
\ No newline at end of file
+}
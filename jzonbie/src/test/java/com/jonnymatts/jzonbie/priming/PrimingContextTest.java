@@ -3,6 +3,7 @@ package com.jonnymatts.jzonbie.priming;
 import com.jonnymatts.jzonbie.requests.AppRequest;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultAppResponse;
+import com.jonnymatts.jzonbie.responses.defaults.DefaultingQueue;
 import com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +12,15 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
+import static com.jonnymatts.jzonbie.defaults.DefaultResponsePriming.defaultPriming;
 import static com.jonnymatts.jzonbie.defaults.StandardPriming.priming;
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
 import static com.jonnymatts.jzonbie.responses.AppResponse.internalServerError;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
+import static com.jonnymatts.jzonbie.requests.AppRequest.post;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -49,6 +54,20 @@ class PrimingContextTest {
         assertThat(got.get(0).getResponses().getPrimed()).containsExactly(zombiePriming.getResponse());
     }
 
+    @Test
+    void getCurrentPrimingReturnsHitCountsOfPrimedMappings() {
+        primingContext.addDefault(zombiePriming.getRequest(), staticDefault(zombiePriming.getResponse()));
+
+        primingContext.getResponse(zombiePriming.getRequest());
+        primingContext.getResponse(zombiePriming.getRequest());
+
+        final List<PrimedMapping> got = primingContext.getCurrentPriming();
+
+        assertThat(got).hasSize(1);
+        assertThat(got.get(0).getResponses().getHitCount()).isEqualTo(2);
+        assertThat(got.get(0).getResponses().getLastHit()).isPresent();
+    }
+
     @Test
     void addReturnsPrimingContextWithNewPrimingAdded() throws Exception {
         assertThat(primingContext.getCurrentPriming()).isEmpty();
@@ -109,6 +128,31 @@ class PrimingContextTest {
         assertThat(entries).containsExactly(zombiePriming.getResponse(), zombiePriming.getResponse());
     }
 
+    @Test
+    void addAllAddsEveryPriming() {
+        final ZombiePriming otherPriming = new ZombiePriming(post("/other"), internalServerError());
+
+        primingContext.addAll(asList(zombiePriming, zombiePriming, otherPriming));
+
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).isEmpty();
+        assertThat(primingContext.getResponse(otherPriming.getRequest())).contains(otherPriming.getResponse());
+    }
+
+    @Test
+    void addPrimedMappingsAddsPrimedAndDefaultResponses() {
+        final DefaultingQueue responses = new DefaultingQueue();
+        responses.add(zombiePriming.getResponse());
+        responses.setDefault(staticDefault(internalServerError()));
+
+        primingContext.addPrimedMappings(singletonList(new PrimedMapping(zombiePriming.getRequest(), responses)));
+
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(internalServerError());
+        assertThat(primingContext.getCurrentPriming()).hasSize(1);
+    }
+
     @Test
     void addDefaultReturnsPrimingContextWithDefaultPrimingAddedForAlreadyExistingRequest() throws Exception {
         primingContext.add(zombiePriming);
@@ -196,6 +240,26 @@ class PrimingContextTest {
         assertThat(currentPriming).hasSize(0);
     }
 
+    @Test
+    void getResponseReturnsOptionalOfAppResponseIfRegexPrimingMatchesAppRequest() throws Exception {
+        primingContext.add(get("/path/[0-9]+"), ok());
+
+        final Optional<AppResponse> got = primingContext.getResponse(get("/path/123"));
+
+        assertThat(got).contains(ok());
+        assertThat(primingContext.getCurrentPriming()).isEmpty();
+    }
+
+    @Test
+    void getResponseReturnsRegexPrimingIfPrimingWithIdenticalPathDoesNotMatchAppRequest() throws Exception {
+        primingContext.add(get("/path").withHeader("header", "value"), ok());
+        primingContext.add(get("/pa.*"), internalServerError());
+
+        final Optional<AppResponse> got = primingContext.getResponse(get("/path"));
+
+        assertThat(got).contains(internalServerError());
+    }
+
     @Test
     void getResponseReturnsEmptyOptionalIfPrimingDoesNotExistForAppRequest() throws Exception {
         final Optional<AppResponse> got = primingContext.getResponse(zombiePriming.getRequest());
@@ -229,6 +293,21 @@ class PrimingContextTest {
         assertThat(got).contains(response);
     }
 
+    @Test
+    void getResponseReturnsRightResponseWhenMatchingInParallel() throws Exception {
+        primingContext = new PrimingContext(emptyList(), 2);
+        primingContext.add(zombiePriming);
+
+        final AppRequest copy = new AppRequest(zombiePriming.getRequest());
+        copy.setHeaders(singletonMap("key", "val"));
+        final AppResponse response = internalServerError();
+        primingContext.add(new ZombiePriming(copy, response));
+
+        assertThat(primingContext.getResponse(copy)).contains(response);
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(primingContext.getCurrentPriming()).isEmpty();
+    }
+
     @Test
     void defaultPrimingIsAdded() {
         primingContext = new PrimingContext(singletonList(priming(zombiePriming.getRequest(), zombiePriming.getResponse())));
@@ -265,4 +344,59 @@ class PrimingContextTest {
         assertThat(entries).hasSize(1);
         assertThat(entries).containsExactly(zombiePriming.getResponse());
     }
-}
\ No newline at end of file
+
+    @Test
+    void resetRestoresDefaultPrimingThatHasBeenUsed() {
+        primingContext = new PrimingContext(singletonList(priming(zombiePriming.getRequest(), zombiePriming.getResponse())));
+
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).isEmpty();
+        assertThat(primingContext.getCurrentPriming()).isEmpty();
+
+        primingContext.reset();
+
+        assertThat(primingContext.getCurrentPriming()).hasSize(1);
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+    }
+
+    @Test
+    void primingAddedToDefaultPrimingIsRemovedOnReset() {
+        primingContext = new PrimingContext(singletonList(defaultPriming(zombiePriming.getRequest(), staticDefault(ok()))));
+        primingContext.add(zombiePriming.getRequest(), internalServerError());
+
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(internalServerError());
+
+        primingContext.reset();
+
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(ok());
+        assertThat(primingContext.getCurrentPriming()).hasSize(1);
+        assertThat(primingContext.getCurrentPriming().get(0).getResponses().getPrimed()).isEmpty();
+    }
+
+    @Test
+    void resetClearsHitCountsOfDefaultPriming() {
+        primingContext = new PrimingContext(singletonList(defaultPriming(zombiePriming.getRequest(), staticDefault(ok()))));
+        primingContext.getResponse(zombiePriming.getRequest());
+
+        assertThat(primingContext.getCurrentPriming().get(0).getResponses().getHitCount()).isEqualTo(1);
+
+        primingContext.reset();
+
+        assertThat(primingContext.getCurrentPriming().get(0).getResponses().getHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    void contextWithDefaultPrimingOnlyHasDefaultPrimingAndIsIndependentOfOriginal() {
+        primingContext = new PrimingContext(singletonList(priming(zombiePriming.getRequest(), zombiePriming.getResponse())));
+        primingContext.add(get("/other"), ok());
+
+        final PrimingContext other = primingContext.withDefaultPrimingOnly();
+
+        assertThat(other.getCurrentPriming()).hasSize(1);
+        assertThat(other.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+        assertThat(other.getResponse(get("/other"))).isEmpty();
+
+        assertThat(primingContext.getCurrentPriming()).hasSize(2);
+        assertThat(primingContext.getResponse(zombiePriming.getRequest())).contains(zombiePriming.getResponse());
+    }
+}
@@ -0,0 +1,107 @@
+package com.jonnymatts.jzonbie.priming;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrimingIndexTest {
+
+    private PrimingIndex<String> underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new PrimingIndex<>();
+    }
+
+    @Test
+    void candidatesReturnsValueForExactPath() {
+        underTest.add("GET", "/path/one", "one");
+        underTest.add("GET", "/path/two", "two");
+
+        assertThat(underTest.candidates("GET", "/path/one")).containsExactly("one");
+    }
+
+    @Test
+    void candidatesReturnsNothingForDifferentMethod() {
+        underTest.add("GET", "/path", "get");
+
+        assertThat(underTest.candidates("POST", "/path")).isEmpty();
+    }
+
+    @Test
+    void candidatesDoesNotReturnValueForPrefixOfExactPath() {
+        underTest.add("GET", "/path/one", "one");
+
+        assertThat(underTest.candidates("GET", "/path")).isEmpty();
+        assertThat(underTest.candidates("GET", "/path/one/two")).isEmpty();
+    }
+
+    @Test
+    void candidatesReturnsRegexValuesUnderTheirLiteralPrefix() {
+        underTest.add("GET", "/path/[0-9]+", "numbers");
+        underTest.add("GET", "/other/.*", "other");
+
+        assertThat(underTest.candidates("GET", "/path/1")).containsExactly("numbers");
+        assertThat(underTest.candidates("GET", "/path/1/2")).containsExactly("numbers");
+        assertThat(underTest.candidates("GET", "/another")).isEmpty();
+    }
+
+    @Test
+    void candidatesReturnsMostSpecificValuesFirst() {
+        underTest.add("GET", "/.*", "root");
+        underTest.add("GET", "/path/.*", "path");
+        underTest.add("GET", "/path/one", "exact");
+
+        assertThat(underTest.candidates("GET", "/path/one")).containsExactly("exact", "path", "root");
+    }
+
+    @Test
+    void candidatesAcrossIndexesReturnsMostSpecificValuesFirst() {
+        final PrimingIndex<String> overlay = new PrimingIndex<>();
+        underTest.add("GET", "/.*", "base root");
+        underTest.add("GET", "/path/.*", "base path");
+        overlay.add("GET", "/.*", "overlay root");
+        overlay.add("GET", "/path/one", "overlay exact");
+
+        assertThat(PrimingIndex.candidates("GET", "/path/one", asList(underTest, overlay)))
+                .containsExactly("overlay exact", "base path", "base root", "overlay root");
+    }
+
+    @Test
+    void candidatesReturnsValuesWithAlternationForEveryPath() {
+        underTest.add("GET", "/path|/other", "alternation");
+
+        assertThat(underTest.candidates("GET", "/other")).containsExactly("alternation");
+    }
+
+    @Test
+    void candidatesReturnsValuesWithQuantifiedSeparatorUnderParentSegment() {
+        underTest.add("GET", "/path/?", "optionalSlash");
+
+        assertThat(underTest.candidates("GET", "/path")).containsExactly("optionalSlash");
+    }
+
+    @Test
+    void removeRemovesValue() {
+        underTest.add("GET", "/path/one", "one");
+        underTest.add("GET", "/path/.*", "path");
+
+        underTest.remove("GET", "/path/one", "one");
+        underTest.remove("GET", "/path/.*", "path");
+
+        assertThat(underTest.candidates("GET", "/path/one")).isEmpty();
+    }
+
+    @Test
+    void clearRemovesAllValues() {
+        underTest.add("GET", "/path/one", "one");
+        underTest.add("POST", "/.*", "all");
+
+        underTest.clear();
+
+        assertThat(underTest.candidates("GET", "/path/one")).isEmpty();
+        assertThat(underTest.candidates("POST", "/path/one")).isEmpty();
+    }
+}
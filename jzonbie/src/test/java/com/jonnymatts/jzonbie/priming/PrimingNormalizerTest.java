@@ -0,0 +1,146 @@
+package com.jonnymatts.jzonbie.priming;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jonnymatts.jzonbie.jackson.JzonbieObjectMapper;
+import com.jonnymatts.jzonbie.requests.AppRequest;
+import com.jonnymatts.jzonbie.responses.AppResponse;
+import com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.ALWAYS;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+import static com.fasterxml.jackson.databind.DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS;
+import static com.fasterxml.jackson.databind.DeserializationFeature.USE_LONG_FOR_INTS;
+import static com.jonnymatts.jzonbie.body.ArrayBodyContent.arrayBody;
+import static com.jonnymatts.jzonbie.body.LiteralBodyContent.literalBody;
+import static com.jonnymatts.jzonbie.body.ObjectBodyContent.objectBody;
+import static com.jonnymatts.jzonbie.body.StringBodyContent.stringBody;
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.requests.AppRequest.post;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrimingNormalizerTest {
+
+    private final ObjectMapper objectMapper = new JzonbieObjectMapper();
+    private final PrimingNormalizer underTest = new PrimingNormalizer(objectMapper);
+
+    @Test
+    void normalizeProducesTheSameZombiePrimingAsAJsonRoundTrip() throws Exception {
+        final ZombiePriming zombiePriming = new ZombiePriming(
+                post("/path").withHeader("header", "value").withQueryParam("param", "value").withBody(objectBody(body())),
+                ok().withHeader("header", "value").withDelay(Duration.ofMillis(10)).templated().withBody(arrayBody(asList(1L, 2.5f, body())))
+        );
+
+        final ZombiePriming got = underTest.normalize(zombiePriming);
+
+        assertThat(got).isEqualTo(roundTrip(zombiePriming, ZombiePriming.class));
+        assertThat(got.getRequest().getBody().getContent()).isEqualTo(roundTrip(zombiePriming, ZombiePriming.class).getRequest().getBody().getContent());
+        assertThat(got.getResponse().getBody().getContent()).isEqualTo(roundTrip(zombiePriming, ZombiePriming.class).getResponse().getBody().getContent());
+    }
+
+    @Test
+    void normalizeProducesTheSameBodiesAsAJsonRoundTrip() throws Exception {
+        for(AppResponse response : asList(ok(), ok().withBody(stringBody("string")), ok().withBody(literalBody(123)), ok().withBody(objectBody(null)))) {
+            assertThat(underTest.normalize(response)).isEqualTo(roundTrip(response, AppResponse.class));
+        }
+    }
+
+    @Test
+    void normalizeProducesTheSameStaticDefaultAsAJsonRoundTrip() throws Exception {
+        final StaticDefaultAppResponse defaultAppResponse = new StaticDefaultAppResponse(ok().withBody(objectBody(body())));
+
+        assertThat(underTest.normalize(defaultAppResponse)).isEqualTo(roundTrip(defaultAppResponse, StaticDefaultAppResponse.class));
+    }
+
+    @Test
+    void normalizeKeepsNullMapValuesIfObjectMapperIncludesThem() throws Exception {
+        final ObjectMapper objectMapper = new JzonbieObjectMapper().setSerializationInclusion(ALWAYS);
+        final AppResponse response = ok().withBody(objectBody(singletonMap("key", null)));
+
+        final AppResponse got = new PrimingNormalizer(objectMapper).normalize(response);
+
+        assertThat(got.getBody().getContent()).isEqualTo(singletonMap("key", null));
+    }
+
+    @Test
+    void normalizeDropsNullMapValuesIfObjectMapperExcludesThemAsMapContent() throws Exception {
+        final ObjectMapper objectMapper = new JzonbieObjectMapper().setDefaultPropertyInclusion(JsonInclude.Value.construct(ALWAYS, NON_NULL));
+        final AppResponse response = ok().withBody(objectBody(singletonMap("key", null)));
+
+        final AppResponse got = new PrimingNormalizer(objectMapper).normalize(response);
+
+        assertThat(got.getBody().getContent()).isEqualTo(emptyMap());
+    }
+
+    @Test
+    void normalizeCopiesTheRequest() {
+        final AppRequest request = get("/path").withHeader("header", "value").withBody(objectBody(singletonMap("key", "value")));
+
+        final AppRequest got = underTest.normalize(request);
+        request.getHeaders().put("other", "value");
+
+        assertThat(got).isNotSameAs(request);
+        assertThat(got.getHeaders()).containsOnlyKeys("header");
+    }
+
+    @Test
+    void normalizeHonoursObjectMapperNumberFeatures() throws Exception {
+        final ObjectMapper objectMapper = new JzonbieObjectMapper().enable(USE_BIG_DECIMAL_FOR_FLOATS, USE_LONG_FOR_INTS);
+        final Map<String, Object> body = body();
+        body.remove("bigInteger");
+        final AppResponse response = ok().withBody(objectBody(body));
+
+        final AppResponse got = new PrimingNormalizer(objectMapper).normalize(response);
+
+        assertThat(got.getBody().getContent()).isEqualTo(objectMapper.readValue(objectMapper.writeValueAsString(response), AppResponse.class).getBody().getContent());
+    }
+
+    private Map<String, Object> body() {
+        final Map<String, Object> body = new HashMap<>();
+        body.put("string", "value");
+        body.put("boolean", true);
+        body.put("null", null);
+        body.put("int", 1);
+        body.put("long", 5L);
+        body.put("bigLong", Long.MAX_VALUE);
+        body.put("short", (short) 2);
+        body.put("atomic", new AtomicLong(3));
+        body.put("bigInteger", BigInteger.TEN.pow(30));
+        body.put("double", 1.5);
+        body.put("float", 1.1f);
+        body.put("nan", Double.NaN);
+        body.put("bigDecimal", new BigDecimal("1.25"));
+        body.put("wholeBigDecimal", new BigDecimal("10"));
+        body.put("char", 'c');
+        body.put("enum", Thread.State.NEW);
+        body.put("set", new LinkedHashSet<>(asList("a", "b")));
+        body.put("array", new Object[]{1, "two"});
+        body.put("nested", singletonMap("list", asList(singletonMap("key", 7L), Duration.ofSeconds(1))));
+        body.put("pojo", new Pojo());
+        return body;
+    }
+
+    private <T> T roundTrip(Object value, Class<T> clazz) throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(value), clazz);
+    }
+
+    @SuppressWarnings("unused")
+    public static class Pojo {
+        public long id = 4L;
+        public String name = "name";
+        public byte[] bytes = {1, 2, 3};
+    }
+}
@@ -4,12 +4,16 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.jonnymatts.jzonbie.Request;
 import com.jonnymatts.jzonbie.Response;
 import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.CallHistorySampling;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.history.FixedCapacityCallHistory;
 import com.jonnymatts.jzonbie.priming.AppRequestFactory;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
 import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.responses.AppResponse;
+import com.jonnymatts.jzonbie.tenants.Tenant;
+import com.jonnymatts.jzonbie.tenants.Tenants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,11 +22,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static java.util.Collections.singletonMap;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +41,9 @@ class AppRequestHandlerTest {
     @Mock private FixedCapacityCache<AppRequest> failedRequests;
     @Mock private AppRequestFactory appRequestFactory;
     @Mock private Request request;
+    @Mock private PrimingContext tenantPrimingContext;
+    @Mock private CallHistory tenantCallHistory;
+    @Mock private PrimingContext unknownPrimingContext;
 
     private ZombiePriming zombiePriming;
     private Exchange exchange;
@@ -45,7 +56,7 @@ class AppRequestHandlerTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        appRequestHandler = new AppRequestHandler(primingContext, callHistory, failedRequests, appRequestFactory);
+        appRequestHandler = new AppRequestHandler(primingContext, callHistory, CallHistorySampling.all(), failedRequests, appRequestFactory);
 
         appRequest = get("/");
         appResponse = ok();
@@ -54,7 +65,7 @@ class AppRequestHandlerTest {
         exchange = new Exchange(appRequest, appResponse);
 
         when(appRequestFactory.create(request)).thenReturn(appRequest);
-        when(primingContext.getResponse(appRequest))
+        lenient().when(primingContext.getResponse(appRequest))
                 .thenReturn(of(appResponse));
     }
 
@@ -72,6 +83,16 @@ class AppRequestHandlerTest {
         verify(callHistory).add(exchange);
     }
 
+    @Test
+    void handleDoesNotAddPrimingRequestToCallHistoryIfNotSampled() throws JsonProcessingException {
+        final AppRequestHandler sampledHandler = new AppRequestHandler(primingContext, callHistory, exchange -> false, failedRequests, appRequestFactory);
+
+        final Response got = sampledHandler.handle(request);
+
+        assertThat(got).isEqualTo(appResponse);
+        verify(callHistory, never()).add(exchange);
+    }
+
     @Test
     void handleThrowsPrimingNotFoundExceptionIfPrimingIsNotFound() throws Exception {
         when(primingContext.getResponse(appRequest)).thenReturn(empty());
@@ -91,4 +112,42 @@ class AppRequestHandlerTest {
             verify(failedRequests).add(appRequest);
         }
     }
+
+    @Test
+    void handleUsesPrimingAndCallHistoryOfTenantNamedByTenantHeader() {
+        final Tenants tenants = createTenants();
+        tenants.getOrCreate("a");
+        final AppRequestHandler tenantHandler = new AppRequestHandler(tenants, CallHistorySampling.all(), appRequestFactory);
+        final AppResponse tenantResponse = ok();
+        when(request.getHeaders()).thenReturn(singletonMap("tenant", "a"));
+        when(tenantPrimingContext.getResponse(appRequest)).thenReturn(of(tenantResponse));
+
+        final Response got = tenantHandler.handle(request);
+
+        assertThat(got).isSameAs(tenantResponse);
+        verify(tenantCallHistory).add(new Exchange(appRequest, tenantResponse));
+        verifyZeroInteractions(callHistory);
+    }
+
+    @Test
+    void handleUsesDefaultPrimingWithoutRecordingIfTenantNamedByTenantHeaderDoesNotExist() {
+        final Tenants tenants = createTenants();
+        final AppRequestHandler tenantHandler = new AppRequestHandler(tenants, CallHistorySampling.all(), appRequestFactory);
+        final AppResponse defaultResponse = ok();
+        when(request.getHeaders()).thenReturn(singletonMap("tenant", "a"));
+        when(unknownPrimingContext.getResponse(appRequest)).thenReturn(of(defaultResponse));
+
+        final Response got = tenantHandler.handle(request);
+
+        assertThat(got).isSameAs(defaultResponse);
+        assertThat(tenants.getAll()).containsExactly(tenants.getDefault());
+        assertThat(tenants.find("a").getCallHistory().getValues()).isEmpty();
+        verifyZeroInteractions(callHistory, tenantCallHistory, tenantPrimingContext);
+    }
+
+    private Tenants createTenants() {
+        return new Tenants(new Tenant(null, primingContext, callHistory, failedRequests), "tenant",
+                name -> new Tenant(name, tenantPrimingContext, tenantCallHistory, failedRequests),
+                new Tenant("unknown", unknownPrimingContext, new FixedCapacityCallHistory(0), new FixedCapacityCache<>(0)), 10, null);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.jonnymatts.jzonbie.requests;
 
+import com.jonnymatts.jzonbie.jackson.Deserializer;
+import com.jonnymatts.jzonbie.jackson.JzonbieObjectMapper;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
 import com.jonnymatts.jzonbie.responses.AppResponse;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
@@ -18,6 +22,10 @@ import static com.jonnymatts.jzonbie.responses.AppResponse.notFound;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
 import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +43,7 @@ class PrimedMappingUploaderTest {
 
     @BeforeEach
     void setUp() throws Exception {
-         uploader = new PrimedMappingUploader(primingContext);
+         uploader = new PrimedMappingUploader(primingContext, new Deserializer(new JzonbieObjectMapper()));
     }
 
     @Test
@@ -53,9 +61,23 @@ class PrimedMappingUploaderTest {
 
         uploader.upload(primedMappings);
 
-        verify(primingContext).add(APP_REQUEST_1, APP_RESPONSE_1);
-        verify(primingContext).addDefault(APP_REQUEST_1, staticDefault(APP_RESPONSE_2));
-        verify(primingContext).add(APP_REQUEST_2, APP_RESPONSE_2);
-        verify(primingContext).addDefault(APP_REQUEST_2, staticDefault(APP_RESPONSE_1));
+        verify(primingContext).addPrimedMappings(primedMappings);
+    }
+
+    @Test
+    void uploadAddsPrimedMappingsFromPrimingFileToPrimingContextInBatches() throws Exception {
+        final String mapping = "{\"request\":{\"path\":\"/\",\"method\":\"GET\"},\"responses\":{\"primed\":[{\"statusCode\":200}]}}";
+        final String primingFile = "[" + String.join(",", nCopies(1500, mapping)) + "]";
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<?>>getArgument(0).size());
+            return primingContext;
+        }).when(primingContext).addPrimedMappings(anyList());
+
+        final List<PrimedMapping> got = uploader.upload(new ByteArrayInputStream(primingFile.getBytes()));
+
+        assertThat(got).hasSize(1500);
+        assertThat(batchSizes).containsExactly(1000, 500);
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.jonnymatts.jzonbie.Response;
 import com.jonnymatts.jzonbie.history.CallHistory;
 import com.jonnymatts.jzonbie.history.Exchange;
 import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.history.FixedCapacityCallHistory;
 import com.jonnymatts.jzonbie.jackson.Deserializer;
 import com.jonnymatts.jzonbie.priming.PrimedMapping;
 import com.jonnymatts.jzonbie.priming.PrimingContext;
@@ -14,8 +15,11 @@ import com.jonnymatts.jzonbie.priming.ZombiePriming;
 import com.jonnymatts.jzonbie.responses.AppResponse;
 import com.jonnymatts.jzonbie.responses.CurrentPrimingFileResponseFactory;
 import com.jonnymatts.jzonbie.responses.CurrentPrimingFileResponseFactory.FileResponse;
+import com.jonnymatts.jzonbie.responses.ErrorResponse;
 import com.jonnymatts.jzonbie.responses.defaults.DefaultingQueue;
 import com.jonnymatts.jzonbie.ssl.HttpsSupport;
+import com.jonnymatts.jzonbie.tenants.Tenant;
+import com.jonnymatts.jzonbie.tenants.Tenants;
 import com.jonnymatts.jzonbie.verification.CountResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,16 +27,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.jonnymatts.jzonbie.requests.AppRequest.get;
 import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
 import static com.jonnymatts.jzonbie.responses.defaults.StaticDefaultAppResponse.staticDefault;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.jetty.http.HttpStatus.BAD_REQUEST_400;
 import static org.eclipse.jetty.http.HttpStatus.CREATED_201;
 import static org.eclipse.jetty.http.HttpStatus.OK_200;
 import static org.mockito.Mockito.*;
@@ -51,6 +62,7 @@ class ZombieRequestHandlerTest {
     @Mock private AppResponse zombieResponse;
     @Mock private FileResponse fileResponse;
     @Mock private PrimedMappingUploader primedMappingUploader;
+    @Mock private PrimingContext tenantPrimingContext;
 
     private static final String primingFileContent = FIXTURE.create(String.class);
 
@@ -96,7 +108,7 @@ class ZombieRequestHandlerTest {
         zombiePriming3 = new ZombiePriming(request3, response);
         exchange3 = new Exchange(request3, response);
 
-        callHistory = new CallHistory(100);
+        callHistory = new FixedCapacityCallHistory(100);
         callHistory.add(exchange1);
         callHistory.add(exchange2);
         callHistory.add(exchange3);
@@ -128,6 +140,33 @@ class ZombieRequestHandlerTest {
         verify(primingContext).add(zombiePriming.getRequest(), zombiePriming.getResponse());
     }
 
+    @Test
+    void handleAddsAllPrimingToPrimingContextIfZombieHeaderHasBatchPrimingValue() throws JsonProcessingException {
+        final List<ZombiePriming> zombiePrimings = asList(zombiePriming2, zombiePriming3);
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "priming-batch"));
+        when(request.getBody()).thenReturn("body");
+        when(deserializer.deserializeCollection("body", ZombiePriming.class)).thenReturn(zombiePrimings);
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(got).isEqualTo(new ZombieResponse(CREATED_201, singletonMap("primed", 2)));
+
+        verify(primingContext).addAll(zombiePrimings);
+    }
+
+    @Test
+    void handleThrowsExceptionIfMethodNotPresentInBatchPrimedRequest() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "priming-batch"));
+        when(request.getBody()).thenReturn("body");
+        when(zombieRequest.getMethod()).thenReturn(null);
+        when(deserializer.deserializeCollection("body", ZombiePriming.class)).thenReturn(singletonList(zombiePriming));
+
+        assertThatThrownBy(() -> zombieRequestHandler.handle(request))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+
+        verify(primingContext, never()).addAll(any());
+    }
+
     @Test
     void handleAddsDefaultRequestToPrimingContextIfZombieHeaderHasDefaultPrimingValue() throws JsonProcessingException {
         when(request.getHeaders()).thenReturn(singletonMap("zombie", "priming-default"));
@@ -145,14 +184,13 @@ class ZombieRequestHandlerTest {
     @Test
     void handleAddsPrimingFromFileToPrimingContextIfZombieHeaderHasPrimingFileValue() throws JsonProcessingException {
         when(request.getHeaders()).thenReturn(singletonMap("zombie", "priming-file"));
-        when(request.getPrimingFileContent()).thenReturn(primingFileContent);
-        when(deserializer.deserializeCollection(primingFileContent, PrimedMapping.class)).thenReturn(primedRequests);
+        final InputStream primingFile = new ByteArrayInputStream(primingFileContent.getBytes());
+        when(request.getPrimingFile()).thenReturn(primingFile);
+        when(primedMappingUploader.upload(primingContext, primingFile)).thenReturn(primedRequests);
 
         final Response got = zombieRequestHandler.handle(request);
 
         assertThat(got).isEqualTo(new ZombieResponse(CREATED_201, primedRequests));
-
-        verify(primedMappingUploader).upload(primedRequests);
     }
 
     @Test
@@ -219,7 +257,64 @@ class ZombieRequestHandlerTest {
 
         final Response got = zombieRequestHandler.handle(request);
 
-        assertThat(got).isEqualTo(new ZombieResponse(OK_200, callHistory));
+        assertThat(got.getStatusCode()).isEqualTo(OK_200);
+        assertThat(streamedValues(got)).containsExactlyElementsOf(callHistory.getValues());
+    }
+
+    @Test
+    void handleReturnsPageOfCallHistoryIfZombieHeaderHasHistoryValueAndLimitAndOffsetAreGiven() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "history"));
+        final Map<String, List<String>> queryParams = new HashMap<>();
+        queryParams.put("offset", singletonList("1"));
+        queryParams.put("limit", singletonList("1"));
+        when(request.getQueryParams()).thenReturn(queryParams);
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(streamedValues(got)).containsExactly(callHistory.getValues().get(1));
+    }
+
+    @Test
+    void handleReturnsCallHistorySinceTimeIfZombieHeaderHasHistoryValueAndSinceIsGiven() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "history"));
+        when(request.getQueryParams()).thenReturn(singletonMap("since", singletonList(Instant.now().plusSeconds(60).toString())));
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(streamedValues(got)).isEmpty();
+    }
+
+    @Test
+    void handleReturnsBadRequestIfZombieHeaderHasHistoryValueAndOffsetIsNotANumber() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "history"));
+        when(request.getQueryParams()).thenReturn(singletonMap("offset", singletonList("first")));
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(got.getStatusCode()).isEqualTo(BAD_REQUEST_400);
+        assertThat(((ErrorResponse) got.getBody().getContent()).getMessage()).isEqualTo("offset must be a number, but was: first");
+    }
+
+    @Test
+    void handleReturnsBadRequestIfZombieHeaderHasHistoryValueAndLimitIsNegative() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "history"));
+        when(request.getQueryParams()).thenReturn(singletonMap("limit", singletonList("-1")));
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(got.getStatusCode()).isEqualTo(BAD_REQUEST_400);
+        assertThat(((ErrorResponse) got.getBody().getContent()).getMessage()).isEqualTo("limit cannot be negative, but was: -1");
+    }
+
+    @Test
+    void handleReturnsBadRequestIfZombieHeaderHasFailedValueAndSinceIsNotAnInstant() throws JsonProcessingException {
+        when(request.getHeaders()).thenReturn(singletonMap("zombie", "failed"));
+        when(request.getQueryParams()).thenReturn(singletonMap("since", singletonList("yesterday")));
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(got.getStatusCode()).isEqualTo(BAD_REQUEST_400);
+        assertThat(((ErrorResponse) got.getBody().getContent()).getMessage()).isEqualTo("since must be an ISO-8601 instant, but was: yesterday");
     }
 
     @Test
@@ -228,7 +323,8 @@ class ZombieRequestHandlerTest {
 
         final Response got = zombieRequestHandler.handle(request);
 
-        assertThat(got).isEqualTo(new ZombieResponse(OK_200, failedRequests));
+        assertThat(got.getStatusCode()).isEqualTo(OK_200);
+        assertThat(streamedValues(got)).containsExactlyElementsOf(failedRequests.getValues());
     }
 
     @Test
@@ -258,7 +354,73 @@ class ZombieRequestHandlerTest {
 
         final Response got = zombieRequestHandler.handle(request);
 
-        assertThat(got).isEqualTo(new ZombieResponse(OK_200, callHistory));
+        assertThat(got.getStatusCode()).isEqualTo(OK_200);
+        assertThat(streamedValues(got)).containsExactlyElementsOf(callHistory.getValues());
+    }
+
+    @Test
+    void handleUsesTenantNamedByTenantHeader() {
+        final CallHistory tenantCallHistory = new FixedCapacityCallHistory(100);
+        final Tenants tenants = new Tenants(new Tenant(null, primingContext, callHistory, failedRequests), "tenant",
+                name -> new Tenant(name, tenantPrimingContext, tenantCallHistory, new FixedCapacityCache<>(100)), createUnknownTenant(), 10, null);
+        zombieRequestHandler = new ZombieRequestHandler("zombie", tenants, deserializer, currentPrimingFileResponseFactory, primedMappingUploader, new HttpsSupport());
+
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("zombie", "priming");
+        headers.put("tenant", "a");
+        when(request.getHeaders()).thenReturn(headers);
+        when(deserializer.deserialize(request, ZombiePriming.class)).thenReturn(zombiePriming);
+        when(zombieRequest.getPath()).thenReturn("path");
+        when(zombieRequest.getMethod()).thenReturn("method");
+
+        zombieRequestHandler.handle(request);
+
+        verify(tenantPrimingContext).add(zombieRequest, zombieResponse);
+        verifyZeroInteractions(primingContext);
+
+        headers.put("zombie", "history");
+
+        final Response got = zombieRequestHandler.handle(request);
+
+        assertThat(streamedValues(got)).isEmpty();
+    }
+
+    @Test
+    void handleRemovesTenantIfZombieHeaderHasResetValueForTenant() {
+        final Tenants tenants = createTenants();
+        zombieRequestHandler = new ZombieRequestHandler("zombie", tenants, deserializer, currentPrimingFileResponseFactory, primedMappingUploader, new HttpsSupport());
+
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("zombie", "reset");
+        headers.put("tenant", "a");
+        when(request.getHeaders()).thenReturn(headers);
+
+        final Tenant tenant = tenants.getOrCreate("a");
+
+        zombieRequestHandler.handle(request);
+
+        assertThat(tenants.getAll()).doesNotContain(tenant);
+        assertThat(callHistory.getValues()).isNotEmpty();
+        verifyZeroInteractions(primingContext, tenantPrimingContext);
+    }
+
+    @Test
+    void handleDoesNotCreateTenantIfZombieHeaderHasReadOnlyValueForTenant() {
+        final Tenants tenants = createTenants();
+        zombieRequestHandler = new ZombieRequestHandler("zombie", tenants, deserializer, currentPrimingFileResponseFactory, primedMappingUploader, new HttpsSupport());
+
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("tenant", "a");
+        when(request.getHeaders()).thenReturn(headers);
+        when(deserializer.deserialize(request, AppRequest.class)).thenReturn(zombieRequest);
+
+        for(String zombieHeaderValue : asList("history", "failed", "count", "current", "reset")) {
+            headers.put("zombie", zombieHeaderValue);
+            zombieRequestHandler.handle(request);
+        }
+
+        assertThat(tenants.getAll()).containsExactly(tenants.getDefault());
+        verifyZeroInteractions(primingContext);
     }
 
     @Test
@@ -269,4 +431,17 @@ class ZombieRequestHandlerTest {
 
         assertThat(got).isEqualTo(new ZombieResponse(OK_200, singletonMap("message", "Up!")));
     }
+
+    private Tenants createTenants() {
+        return new Tenants(new Tenant(null, primingContext, callHistory, failedRequests), "tenant",
+                name -> new Tenant(name, tenantPrimingContext, new FixedCapacityCallHistory(100), new FixedCapacityCache<>(100)), createUnknownTenant(), 10, null);
+    }
+
+    private Tenant createUnknownTenant() {
+        return new Tenant("unknown", tenantPrimingContext, new FixedCapacityCallHistory(0), new FixedCapacityCache<>(0));
+    }
+
+    private List<Object> streamedValues(Response response) {
+        return ((StreamingZombieResponse) response).getValues().collect(toList());
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.jonnymatts.jzonbie.templating;
 
+import com.google.common.cache.CacheStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -55,4 +56,27 @@ class ResponseTransformerTest {
         assertThatThrownBy(() -> underTest.transformBody(transformationContext, null))
                 .isInstanceOf(TransformResponseException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void transformBodyCompilesEachTemplateOnce() {
+        underTest.transformBody(transformationContext, "{{ request.url }}");
+        underTest.transformBody(transformationContext, "{{ request.url }}");
+        underTest.transformBody(transformationContext, "{{ request.method }}");
+
+        final CacheStats stats = underTest.getTemplateCacheStats();
+
+        assertThat(stats.missCount()).isEqualTo(2);
+        assertThat(stats.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void transformBodyEvictsTemplatesWhenCacheIsFull() {
+        underTest = new ResponseTransformer(new JzonbieHandlebars(), 1);
+
+        underTest.transformBody(transformationContext, "{{ request.url }}");
+        final String got = underTest.transformBody(transformationContext, "{{ request.method }}");
+
+        assertThat(got).isEqualTo("method");
+        assertThat(underTest.getTemplateCacheStats().evictionCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,222 @@
+package com.jonnymatts.jzonbie.tenants;
+
+import com.jonnymatts.jzonbie.Request;
+import com.jonnymatts.jzonbie.history.CallHistory;
+import com.jonnymatts.jzonbie.history.Exchange;
+import com.jonnymatts.jzonbie.history.FixedCapacityCache;
+import com.jonnymatts.jzonbie.history.FixedCapacityCallHistory;
+import com.jonnymatts.jzonbie.priming.PrimingContext;
+import com.jonnymatts.jzonbie.requests.AppRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jonnymatts.jzonbie.requests.AppRequest.get;
+import static com.jonnymatts.jzonbie.responses.AppResponse.ok;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static java.time.ZoneOffset.UTC;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TenantsTest {
+
+    @Mock private Request request;
+    @Mock private PrimingContext primingContext;
+    @Mock private PrimingContext unknownPrimingContext;
+
+    private CallHistory callHistory;
+    private FixedCapacityCache<AppRequest> failedRequests;
+    private Tenant defaultTenant;
+    private Tenant unknownTenant;
+    private Tenants underTest;
+
+    @BeforeEach
+    void setUp() {
+        callHistory = new FixedCapacityCallHistory(10);
+        failedRequests = new FixedCapacityCache<>(10);
+        defaultTenant = new Tenant(null, primingContext, callHistory, failedRequests);
+        unknownTenant = new Tenant("unknown", unknownPrimingContext, new FixedCapacityCallHistory(0), new FixedCapacityCache<>(0));
+        underTest = new Tenants(defaultTenant, "tenant", this::createTenant, unknownTenant, 10, null);
+    }
+
+    @Test
+    void getOrCreateReturnsDefaultTenantIfRequestHasNoTenantHeader() {
+        when(request.getHeaders()).thenReturn(emptyMap());
+
+        assertThat(underTest.getOrCreate(request)).isSameAs(defaultTenant);
+        assertThat(underTest.find(request)).isSameAs(defaultTenant);
+    }
+
+    @Test
+    void getOrCreateReturnsSameTenantForSameTenantHeader() {
+        when(request.getHeaders()).thenReturn(singletonMap("tenant", "a"));
+
+        final Tenant tenant = underTest.getOrCreate(request);
+
+        assertThat(tenant).isNotSameAs(defaultTenant);
+        assertThat(tenant.getName()).isEqualTo("a");
+        assertThat(underTest.getOrCreate(request)).isSameAs(tenant);
+        assertThat(underTest.find(request)).isSameAs(tenant);
+        assertThat(underTest.getOrCreate("b")).isNotSameAs(tenant);
+        assertThat(underTest.getAll()).containsExactlyInAnyOrder(defaultTenant, tenant, underTest.find("b"));
+    }
+
+    @Test
+    void findReturnsSharedStandInWithoutCreatingTenantIfTenantDoesNotExist() {
+        when(request.getHeaders()).thenReturn(singletonMap("tenant", "a"));
+
+        final Tenant tenant = underTest.find(request);
+        tenant.getCallHistory().add(new Exchange(get("/"), ok()));
+        tenant.getFailedRequests().add(get("/"));
+
+        assertThat(tenant).isSameAs(unknownTenant);
+        assertThat(underTest.find("a")).isSameAs(tenant);
+        assertThat(underTest.find("b")).isSameAs(tenant);
+        assertThat(tenant.isDefault()).isFalse();
+        assertThat(tenant.getCallHistory().getValues()).isEmpty();
+        assertThat(tenant.getFailedRequests().getValues()).isEmpty();
+        assertThat(underTest.getAll()).containsExactly(defaultTenant);
+    }
+
+    @Test
+    void resetDoesNothingToStandInForTenantThatDoesNotExist() {
+        underTest.reset(underTest.find("a"));
+
+        assertThat(underTest.getAll()).containsExactly(defaultTenant);
+        verifyZeroInteractions(primingContext, unknownPrimingContext);
+    }
+
+    @Test
+    void resetOfDefaultTenantResetsStandInForTenantsThatDoNotExist() {
+        underTest.reset(defaultTenant);
+
+        verify(unknownPrimingContext).reset();
+    }
+
+    @Test
+    void getOrCreateAndFindReturnDefaultTenantIfNoTenantHeaderIsConfigured() {
+        underTest = new Tenants(defaultTenant);
+
+        assertThat(underTest.getOrCreate(request)).isSameAs(defaultTenant);
+        assertThat(underTest.getOrCreate("a")).isSameAs(defaultTenant);
+        assertThat(underTest.find(request)).isSameAs(defaultTenant);
+        assertThat(underTest.find("a")).isSameAs(defaultTenant);
+        assertThat(underTest.getAll()).containsExactly(defaultTenant);
+    }
+
+    @Test
+    void getOrCreateThrowsExceptionIfMaximumNumberOfTenantsExist() {
+        underTest = new Tenants(defaultTenant, "tenant", this::createTenant, unknownTenant, 1, null);
+        final Tenant tenant = underTest.getOrCreate("a");
+
+        assertThat(underTest.getOrCreate("a")).isSameAs(tenant);
+        assertThatThrownBy(() -> underTest.getOrCreate("b"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot create tenant b, the maximum of 1 tenants already exist");
+
+        underTest.reset(tenant);
+
+        assertThat(underTest.getOrCreate("b").getName()).isEqualTo("b");
+    }
+
+    @Test
+    void getOrCreateRemovesTenantsIdleForLongerThanIdleTimeout() {
+        final MutableClock clock = new MutableClock();
+        underTest = new Tenants(defaultTenant, "tenant", this::createTenant, unknownTenant, 2, Duration.ofMinutes(10), clock);
+        final Tenant idle = underTest.getOrCreate("a");
+        final Tenant used = underTest.getOrCreate("b");
+
+        clock.advance(Duration.ofMinutes(6));
+        underTest.find("b");
+        clock.advance(Duration.ofMinutes(6));
+        final Tenant created = underTest.getOrCreate("c");
+
+        assertThat(underTest.getAll()).containsExactlyInAnyOrder(defaultTenant, used, created);
+        assertThat(underTest.find("a")).isNotSameAs(idle);
+    }
+
+    @Test
+    void getOrCreateCreatesTenantHistoryOnlyWhenUsed() {
+        final AtomicInteger created = new AtomicInteger();
+        underTest = new Tenants(defaultTenant, "tenant", name -> new Tenant(name, primingContext, () -> {
+            created.incrementAndGet();
+            return new FixedCapacityCallHistory(10);
+        }, () -> new FixedCapacityCache<>(10)), unknownTenant, 10, null);
+
+        final Tenant tenant = underTest.getOrCreate("a");
+        underTest.reset(tenant);
+
+        assertThat(created).hasValue(0);
+
+        final Tenant used = underTest.getOrCreate("a");
+        used.getCallHistory().add(new Exchange(get("/"), ok()));
+        used.getCallHistory().add(new Exchange(get("/"), ok()));
+
+        assertThat(created).hasValue(1);
+        assertThat(used.getCallHistory().getValues()).hasSize(2);
+    }
+
+    @Test
+    void resetResetsDefaultTenantInPlace() {
+        callHistory.add(new Exchange(get("/"), ok()));
+        failedRequests.add(get("/"));
+
+        underTest.reset(defaultTenant);
+
+        verify(primingContext).reset();
+        assertThat(callHistory.getValues()).isEmpty();
+        assertThat(failedRequests.getValues()).isEmpty();
+        assertThat(underTest.getAll()).containsExactly(defaultTenant);
+    }
+
+    @Test
+    void resetRemovesOtherTenants() {
+        final Tenant tenant = underTest.getOrCreate("a");
+
+        underTest.reset(tenant);
+
+        assertThat(underTest.getAll()).containsExactly(defaultTenant);
+        assertThat(underTest.getOrCreate("a")).isNotSameAs(tenant);
+    }
+
+    private Tenant createTenant(String name) {
+        return new Tenant(name, primingContext, new FixedCapacityCallHistory(10), new FixedCapacityCache<>(10));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.EPOCH;
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}